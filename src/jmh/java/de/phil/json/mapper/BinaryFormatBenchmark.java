@@ -0,0 +1,93 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading and writing JSON, YAML, Smile and CBOR with the cars of <code>src/test/resources/cars.yml</code>
+ * repeated many times. Run from the project directory; the sizes of the formats are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    /**
+     * Number of copies of the cars.
+     */
+    @Param({"1", "1000"})
+    public int copies;
+
+    private JsonMapImpl data;
+    private byte[] json;
+    private byte[] yaml;
+    private byte[] smile;
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() {
+        final JsonList cars = JsonMapping.readYaml(Path.of("src", "test", "resources", "cars.yml"), JsonMapImpl.class).getAsJsonList("cars");
+        final List<JsonMap> list = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            list.addAll(cars);
+        }
+        data = new JsonMapImpl(Map.of("cars", list));
+        json = JsonMapping.writeValueAsString(data).getBytes(StandardCharsets.UTF_8);
+        yaml = JsonMapping.writeValueAsYaml(data).getBytes(StandardCharsets.UTF_8);
+        smile = JsonMapping.writeValueAsSmile(data);
+        cbor = JsonMapping.writeValueAsCbor(data);
+        System.out.printf("%nbytes: json=%d yaml=%d smile=%d cbor=%d%n", json.length, yaml.length, smile.length, cbor.length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return JsonMapping.writeValueAsString(data).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeYaml() {
+        return JsonMapping.writeValueAsYaml(data).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() {
+        return JsonMapping.writeValueAsSmile(data);
+    }
+
+    @Benchmark
+    public byte[] writeCbor() {
+        return JsonMapping.writeValueAsCbor(data);
+    }
+
+    @Benchmark
+    public JsonMapImpl readJson() {
+        return JsonMapping.readAnyFormat(json, JsonMapImpl.class);
+    }
+
+    @Benchmark
+    public JsonMapImpl readYaml() {
+        return JsonMapping.readAnyFormat(yaml, JsonMapImpl.class);
+    }
+
+    @Benchmark
+    public JsonMapImpl readSmile() {
+        return JsonMapping.readAnyFormat(smile, JsonMapImpl.class);
+    }
+
+    @Benchmark
+    public JsonMapImpl readCbor() {
+        return JsonMapping.readAnyFormat(cbor, JsonMapImpl.class);
+    }
+}
@@ -0,0 +1,58 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JsonMapping#copyValue(Object, Class)} with copying via JSON text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CopyValueBenchmark {
+
+    /**
+     * Number of cars in the copied data.
+     */
+    @Param({"10", "1000"})
+    public int cars;
+
+    private Map<String, Object> data;
+
+    @Setup
+    public void setUp() {
+        final List<Car> list = new ArrayList<>();
+        for (int i = 0; i < cars; i++) {
+            list.add(new Car("car" + i, i % 2 == 0 ? "blue" : "red", 10_000_000_000L + i, Instant.ofEpochSecond(i),
+                             List.of("tire", "steering wheel", "horn")));
+        }
+        data = Map.of("cars", list);
+    }
+
+    @Benchmark
+    public JsonMapImpl copyViaJsonText() {
+        return JsonMapping.readJson(JsonMapping.writeValueAsString(data), JsonMapImpl.class);
+    }
+
+    @Benchmark
+    public JsonMapImpl copyValue() {
+        return JsonMapping.copyValue(data, JsonMapImpl.class);
+    }
+
+    /**
+     * Copied POJO.
+     */
+    public record Car(String name, String color, long price, Instant built, List<String> extras) {
+    }
+}
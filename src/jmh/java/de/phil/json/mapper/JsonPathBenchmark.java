@@ -0,0 +1,45 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JsonPath} with chained getters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonPathBenchmark {
+
+    private static final JsonPath PATH = JsonPath.compile("cars[1].mapOfMaps.map1.b");
+
+    private JsonMapImpl data;
+
+    @Setup
+    public void setUp() {
+        data = JsonMapping.readJson("{\"cars\":[{\"name\":\"audi\"},{\"name\":\"mercedes\",\"mapOfMaps\":{\"map1\":{\"a\":\"A\",\"b\":\"B\"}}}]}",
+                                    JsonMapImpl.class);
+    }
+
+    @Benchmark
+    public String chainedGetters() {
+        return data.getAsJsonList("cars").get(1).getAsMap("mapOfMaps").getAsMap("map1").getAs("b", String.class);
+    }
+
+    @Benchmark
+    public String pathExpression() {
+        return data.getPath("cars[1].mapOfMaps.map1.b", String.class);
+    }
+
+    @Benchmark
+    public String compiledPath() {
+        return PATH.evaluate(data, String.class);
+    }
+}
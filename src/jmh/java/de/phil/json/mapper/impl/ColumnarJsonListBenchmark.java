@@ -0,0 +1,84 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the memory per record of {@link JsonListImpl} and {@link ColumnarJsonList} for records like the cars
+ * of the test data (<code>cars.yml</code>), scaled up. The <code>retained*</code>-benchmarks report the live heap per
+ * record after GC as <code>retainedBytesPerRecord</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarJsonListBenchmark {
+
+    private static final int RECORDS = 10_000;
+    private static final String[] NAMES = {"audi", "porsche", "mercedes", "toyota"};
+    private static final String[] COLORS = {"blue", "red", "pale blue"};
+
+    private String json;
+    private JsonList jsonListImpl;
+    private ColumnarJsonList columnarJsonList;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder("{\"cars\":[");
+        for (int i = 0; i < RECORDS; i++) {
+            builder.append((i == 0) ? "" : ",")
+                   .append("{\"id\":").append(i)
+                   .append(",\"name\":\"").append(NAMES[i % NAMES.length])
+                   .append("\",\"color\":\"").append(COLORS[i % COLORS.length])
+                   .append("\",\"metallic\":").append(i % 3 != 1)
+                   .append(",\"price\":").append(10_000_000_000L + i)
+                   .append(",\"serial\":\"S").append(i).append('"');
+            if (i % 4 != 1) {
+                builder.append(",\"extras\":[\"tire\",\"steering wheel\",\"horn\"]");
+            }
+            builder.append('}');
+        }
+        json = builder.append("]}").toString();
+        jsonListImpl = readJsonListImpl();
+        columnarJsonList = readColumnarJsonList();
+    }
+
+    @Benchmark
+    public JsonList readJsonListImpl() {
+        return JsonMapping.readJson(json, JsonMapImpl.class).getAsJsonList("cars");
+    }
+
+    @Benchmark
+    public ColumnarJsonList readColumnarJsonList() {
+        return new ColumnarJsonList(readJsonListImpl());
+    }
+
+    @Benchmark
+    public long sumJsonListImpl() {
+        return jsonListImpl.mapToLong("price", 0).sum();
+    }
+
+    @Benchmark
+    public long sumColumnarJsonList() {
+        return columnarJsonList.mapToLong("price", 0).sum();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object retainedJsonListImpl(CompactJsonMapBenchmark.RetainedSize retainedSize) {
+        return retainedSize.measure(this::readJsonListImpl, RECORDS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object retainedColumnarJsonList(CompactJsonMapBenchmark.RetainedSize retainedSize) {
+        return retainedSize.measure(this::readColumnarJsonList, RECORDS);
+    }
+}
@@ -0,0 +1,118 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares reading and accessing many records with {@link JsonMapImpl} and {@link CompactJsonMap}.
+ * The <code>retained*</code>-benchmarks report the live heap per record after GC as <code>retainedBytesPerRecord</code>,
+ * run with <code>-prof gc</code> and compare <code>gc.alloc.rate.norm</code> for the memory allocated while reading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactJsonMapBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    private String json;
+    private JsonMapImpl jsonMapImpl;
+    private CompactJsonMap compactJsonMap;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder("{\"records\":[");
+        for (int i = 0; i < RECORDS; i++) {
+            builder.append((i == 0) ? "" : ",")
+                   .append("{\"id\":").append(i)
+                   .append(",\"name\":\"record").append(i)
+                   .append("\",\"price\":").append(i * 1.5)
+                   .append(",\"active\":").append(i % 2 == 0)
+                   .append(",\"category\":\"c").append(i % 10).append("\"}");
+        }
+        json = builder.append("]}").toString();
+        jsonMapImpl = readJsonMapImpl();
+        compactJsonMap = readCompactJsonMap();
+    }
+
+    @Benchmark
+    public JsonMapImpl readJsonMapImpl() {
+        return JsonMapping.readJson(json, JsonMapImpl.class);
+    }
+
+    @Benchmark
+    public CompactJsonMap readCompactJsonMap() {
+        return JsonMapping.readJson(json, CompactJsonMap.class);
+    }
+
+    @Benchmark
+    public long sumJsonMapImpl() {
+        return sum(jsonMapImpl.getAsJsonList("records"));
+    }
+
+    @Benchmark
+    public long sumCompactJsonMap() {
+        return sum(compactJsonMap.getAsJsonList("records", CompactJsonMap.class));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object retainedJsonMapImpl(RetainedSize retainedSize) {
+        return retainedSize.measure(this::readJsonMapImpl, RECORDS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object retainedCompactJsonMap(RetainedSize retainedSize) {
+        return retainedSize.measure(this::readCompactJsonMap, RECORDS);
+    }
+
+    private static long sum(Iterable<JsonMap> records) {
+        long sum = 0;
+        for (JsonMap record : records) {
+            sum += record.getLong("id", 0);
+        }
+        return sum;
+    }
+
+    /**
+     * Live heap retained by the records read in one invocation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedSize {
+
+        public long retainedBytesPerRecord;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPerRecord = 0;
+        }
+
+        Object measure(Supplier<?> read, int count) {
+            final long before = usedHeapAfterGc();
+            final Object records = read.get();
+            retainedBytesPerRecord = (usedHeapAfterGc() - before) / count;
+            Reference.reachabilityFence(records);
+            return records;
+        }
+
+        private static long usedHeapAfterGc() {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing many records with {@link JsonMapImpl}, which are sorted on each write, and {@link SortedJsonMap}.
+ * Run with <code>-prof gc</code> and compare <code>gc.alloc.rate.norm</code> for the memory used per write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortedJsonMapBenchmark {
+
+    private JsonMapImpl jsonMapImpl;
+    private SortedJsonMap sortedJsonMap;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder("{\"records\":[");
+        for (int i = 0; i < 10_000; i++) {
+            builder.append((i == 0) ? "" : ",")
+                   .append("{\"id\":").append(i)
+                   .append(",\"name\":\"record").append(i)
+                   .append("\",\"price\":").append(i * 1.5)
+                   .append(",\"active\":").append(i % 2 == 0)
+                   .append(",\"category\":\"c").append(i % 10).append("\"}");
+        }
+        final String json = builder.append("]}").toString();
+        jsonMapImpl = JsonMapping.readJson(json, JsonMapImpl.class);
+        sortedJsonMap = JsonMapping.readJson(json, SortedJsonMap.class);
+    }
+
+    @Benchmark
+    public String writeJsonMapImpl() {
+        return JsonMapping.writeValueAsString(jsonMapImpl);
+    }
+
+    @Benchmark
+    public String writeSortedJsonMap() {
+        return JsonMapping.writeValueAsString(sortedJsonMap);
+    }
+}
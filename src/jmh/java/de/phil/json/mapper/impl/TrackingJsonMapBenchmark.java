@@ -0,0 +1,52 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a large map again after changing one value with {@link JsonMapImpl} and {@link TrackingJsonMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackingJsonMapBenchmark {
+
+    private JsonMapImpl jsonMapImpl;
+    private TrackingJsonMap trackingJsonMap;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < 1_000; i++) {
+            builder.append((i == 0) ? "" : ",")
+                   .append("\"record").append(i).append("\":{\"id\":").append(i)
+                   .append(",\"name\":\"record").append(i)
+                   .append("\",\"price\":").append(i * 1.5)
+                   .append(",\"details\":{\"active\":").append(i % 2 == 0)
+                   .append(",\"category\":\"c").append(i % 10).append("\"}}");
+        }
+        final String json = builder.append("}").toString();
+        jsonMapImpl = JsonMapping.readJson(json, JsonMapImpl.class);
+        trackingJsonMap = JsonMapping.readJson(json, TrackingJsonMap.class);
+    }
+
+    @Benchmark
+    public String writeJsonMapImpl() {
+        jsonMapImpl.getAsMap("record500").getAsMap("details").put("counter", counter++);
+        return JsonMapping.writeValueAsString(jsonMapImpl);
+    }
+
+    @Benchmark
+    public String writeTrackingJsonMap() {
+        trackingJsonMap.getAsMap("record500", TrackingJsonMap.class).getAsMap("details", TrackingJsonMap.class).put("counter", counter++);
+        return JsonMapping.writeValueAsString(trackingJsonMap);
+    }
+}
@@ -0,0 +1,68 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.patch;
+
+import de.phil.json.mapper.JsonMapping;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares diffing two large maps differing in one value with <code>equals</code>,
+ * for mutable maps and for frozen maps with cached fingerprints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDiffBenchmark {
+
+    private JsonMapImpl source;
+    private JsonMapImpl target;
+    private JsonMapImpl frozenSource;
+    private JsonMapImpl frozenTarget;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < 10_000; i++) {
+            builder.append((i == 0) ? "" : ",")
+                   .append("\"record").append(i).append("\":{\"id\":").append(i)
+                   .append(",\"name\":\"record").append(i)
+                   .append("\",\"price\":").append(i * 1.5)
+                   .append(",\"details\":{\"active\":").append(i % 2 == 0)
+                   .append(",\"category\":\"c").append(i % 10).append("\"}}");
+        }
+        final String json = builder.append("}").toString();
+        source = JsonMapping.readJson(json, JsonMapImpl.class);
+        target = JsonMapping.readJson(json, JsonMapImpl.class);
+        target.getAsMap("record5000").getAsMap("details").put("category", "changed");
+        frozenSource = JsonMapping.readJson(json, JsonMapImpl.class);
+        frozenTarget = JsonMapping.readJson(json, JsonMapImpl.class);
+        frozenTarget.getAsMap("record5000").getAsMap("details").put("category", "changed");
+        frozenSource.freeze(JsonMapImpl.class);
+        frozenTarget.freeze(JsonMapImpl.class);
+        // computes the fingerprints once
+        frozenSource.fingerprint();
+        frozenTarget.fingerprint();
+    }
+
+    @Benchmark
+    public boolean equalsMutable() {
+        return source.equals(target);
+    }
+
+    @Benchmark
+    public List<JsonDiff.Difference> diffMutable() {
+        return JsonDiff.diff(source, target);
+    }
+
+    @Benchmark
+    public List<JsonDiff.Difference> diffFrozen() {
+        return JsonDiff.diff(frozenSource, frozenTarget);
+    }
+}
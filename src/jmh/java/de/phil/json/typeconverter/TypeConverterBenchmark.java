@@ -0,0 +1,82 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.typeconverter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TypeConverter#convert(Object, Class)} with resolving the converter on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeConverterBenchmark {
+
+    /**
+     * Converted enum.
+     */
+    public enum Color {RED, GREEN, BLUE}
+
+    private Object integer = 1234;
+    private Object string = "1234";
+    private Object color = "GREEN";
+
+    @Benchmark
+    public Long integerToLong() {
+        return TypeConverter.convert(integer, Long.class);
+    }
+
+    @Benchmark
+    public Long integerToLongUncached() {
+        return uncached(integer, Long.class);
+    }
+
+    @Benchmark
+    public BigDecimal stringToBigDecimal() {
+        return TypeConverter.convert(string, BigDecimal.class);
+    }
+
+    @Benchmark
+    public BigDecimal stringToBigDecimalUncached() {
+        return uncached(string, BigDecimal.class);
+    }
+
+    @Benchmark
+    public Integer integerToInteger() {
+        return TypeConverter.convert(integer, Integer.class);
+    }
+
+    @Benchmark
+    public Integer integerToIntegerUncached() {
+        return uncached(integer, Integer.class);
+    }
+
+    @Benchmark
+    public Color stringToEnum() {
+        return TypeConverter.convert(color, Color.class);
+    }
+
+    @Benchmark
+    public Color stringToEnumUncached() {
+        return uncached(color, Color.class);
+    }
+
+    /**
+     * Conversion as done before converters were cached per pair of classes.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T uncached(Object value, Class<T> toClass) {
+        return switch (TypeConversionInfo.of(value, toClass)) {
+            case NULL -> null;
+            case CAST -> (T) value;
+            case CONVERT -> (T) TypeConverter.getConverter(toClass).apply(value);
+            case IMPOSSIBLE -> throw new TypeConversionException(value, toClass);
+        };
+    }
+}
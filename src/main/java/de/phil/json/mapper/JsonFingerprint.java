@@ -0,0 +1,135 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 64-bit hashes of the content of values, e.g. to find unchanged subtrees of large maps quickly.
+ * <p>
+ * Equal values have equal fingerprints, independent of the order of map entries; <code>null</code> values of maps are
+ * ignored, as they are not written. Numbers are equal as in {@link de.phil.json.mapper.patch.JsonDiff}: integers of any type
+ * with the same value, and decimals of any type with the same value (e.g. <code>1.5</code> as <code>Double</code> and
+ * as <code>BigDecimal</code>), so decimals are hashed by their decimal representation. Values with equal fingerprints are equal except for hash collisions,
+ * which are unlikely for 64 bits. Maps and lists use the fingerprints of nested maps and lists
+ * (see {@link JsonMap#fingerprint()}), which read-only maps compute only once.
+ */
+public final class JsonFingerprint {
+
+    private static final long NULL = 0x6A09E667F3BCC908L;
+    private static final long TRUE = 0xBB67AE8584CAA73BL;
+    private static final long FALSE = 0x3C6EF372FE94F82BL;
+    private static final long INTEGER = 0xA54FF53A5F1D36F1L;
+    private static final long DECIMAL = 0x510E527FADE682D1L;
+    private static final long STRING = 0x9B05688C2B3E6C1FL;
+    private static final long MAP = 0x1F83D9ABFB41BD6BL;
+    private static final long LIST = 0x5BE0CD19137E2179L;
+
+    private JsonFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of a value.
+     *
+     * @param value Value.
+     * @return fingerprint.
+     */
+    public static long of(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof final JsonMap map) {
+            return map.fingerprint();
+        }
+        if (value instanceof final JsonList list) {
+            return list.fingerprint();
+        }
+        if (value instanceof final Map<?, ?> map) {
+            return ofEntries(map);
+        }
+        if (value instanceof final List<?> list) {
+            return ofElements(list);
+        }
+        if (value instanceof final String string) {
+            return ofString(string, STRING);
+        }
+        if (value instanceof final Boolean bool) {
+            return bool ? TRUE : FALSE;
+        }
+        if ((value instanceof Integer) || (value instanceof Long) || (value instanceof Short) || (value instanceof Byte)) {
+            return mix(((Number) value).longValue() ^ INTEGER);
+        }
+        if (value instanceof final BigInteger bigInteger) {
+            return (bigInteger.bitLength() < Long.SIZE) ? mix(bigInteger.longValue() ^ INTEGER) : ofString(bigInteger.toString(), INTEGER);
+        }
+        if (value instanceof final BigDecimal bigDecimal) {
+            return ofDecimal(bigDecimal);
+        }
+        if ((value instanceof Double) || (value instanceof Float)) {
+            final double d = ((Number) value).doubleValue();
+            // same representation as a BigDecimal of equal value
+            return Double.isFinite(d) ? ofDecimal(BigDecimal.valueOf(d)) : mix(Double.doubleToLongBits(d) ^ DECIMAL);
+        }
+        return ofString(Objects.toString(value), value.getClass().hashCode());
+    }
+
+    /**
+     * Computes the fingerprint of a map from its entries, without using a cached fingerprint of the map itself.
+     *
+     * @param map Map.
+     * @return fingerprint.
+     */
+    public static long ofEntries(@NotNull Map<?, ?> map) {
+        long sum = 0;
+        int size = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() != null) {
+                // summing makes the fingerprint independent of the order of the entries
+                sum += mix(ofString(String.valueOf(entry.getKey()), MAP) + 31 * of(entry.getValue()));
+                size++;
+            }
+        }
+        return mix(sum ^ MAP ^ size);
+    }
+
+    /**
+     * Computes the fingerprint of a list from its elements, without using a cached fingerprint of the list itself.
+     *
+     * @param list List.
+     * @return fingerprint.
+     */
+    public static long ofElements(@NotNull List<?> list) {
+        long hash = LIST;
+        for (Object element : list) {
+            hash = 31 * hash + of(element);
+        }
+        return mix(hash ^ list.size());
+    }
+
+    private static long ofDecimal(@NotNull BigDecimal decimal) {
+        return ofString(decimal.stripTrailingZeros().toString(), DECIMAL);
+    }
+
+    private static long ofString(@NotNull String string, long seed) {
+        long hash = seed;
+        for (int i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash ^ string.length());
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreading every bit of the input over the result.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
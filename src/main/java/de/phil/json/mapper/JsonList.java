@@ -3,7 +3,9 @@
 package de.phil.json.mapper;
 
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * List of {@link JsonMap}s.
@@ -20,7 +22,64 @@ public interface JsonList extends List<JsonMap> {
      * @throws IllegalArgumentException no or multiple matching values found.
      */
     default <T> JsonMap get(String key, T value) throws IllegalArgumentException {
-        return get(key, stream().filter(jm -> jm.is(key, value, true)));
+        return get(key, findAll(key, value));
+    }
+
+    /**
+     * Returns all maps that contain the given value under the given key.
+     *
+     * @param key Key.
+     * @param value Value to find.
+     * @param <T> Type of value.
+     * @return Maps matching the condition.
+     */
+    default <T> List<JsonMap> findAll(String key, T value) {
+        return stream().filter(jm -> jm.is(key, value, true)).toList();
+    }
+
+    /**
+     * Gets the values under the given key as <code>int</code>s (see {@link JsonMap#getInt(String, int)}).
+     *
+     * @param key Key.
+     * @param defaultValue Value for maps without value under key.
+     * @return values.
+     */
+    default IntStream mapToInt(String key, int defaultValue) {
+        return stream().mapToInt(jm -> jm.getInt(key, defaultValue));
+    }
+
+    /**
+     * Gets the values under the given key as <code>long</code>s (see {@link JsonMap#getLong(String, long)}).
+     *
+     * @param key Key.
+     * @param defaultValue Value for maps without value under key.
+     * @return values.
+     */
+    default LongStream mapToLong(String key, long defaultValue) {
+        return stream().mapToLong(jm -> jm.getLong(key, defaultValue));
+    }
+
+    /**
+     * Gets the values under the given key as <code>double</code>s (see {@link JsonMap#getDouble(String, double)}).
+     *
+     * @param key Key.
+     * @param defaultValue Value for maps without value under key.
+     * @return values.
+     */
+    default DoubleStream mapToDouble(String key, double defaultValue) {
+        return stream().mapToDouble(jm -> jm.getDouble(key, defaultValue));
+    }
+
+    /**
+     * Indexes the maps by the value under the given key, so that {@link #get(String, Object)} and
+     * {@link #findAll(String, Object)} find maps by this key without scanning the list.
+     * Lists that don't support indexing ignore the call.
+     *
+     * @param key Key to index by.
+     * @return this list.
+     */
+    default JsonList indexBy(String key) {
+        return this;
     }
 
     /**
@@ -32,11 +91,28 @@ public interface JsonList extends List<JsonMap> {
      * @throws IllegalArgumentException no or multiple matching values found.
      */
     default JsonMap get(String key, boolean condition) throws IllegalArgumentException {
-        return get(key, stream().filter(jm -> jm.is(key, condition)));
+        return get(key, stream().filter(jm -> jm.is(key, condition)).toList());
+    }
+
+    /**
+     * Computes the fingerprint of the content of this list (see {@link JsonFingerprint}).
+     *
+     * @return fingerprint.
+     */
+    default long fingerprint() {
+        return JsonFingerprint.ofElements(this);
+    }
+
+    /**
+     * Checks whether the list keeps its fingerprint once computed, so calling {@link #fingerprint()} again is cheap.
+     *
+     * @return true if the fingerprint is cached.
+     */
+    default boolean isFingerprintCached() {
+        return false;
     }
 
-    private JsonMap get(String key, Stream<JsonMap> content) {
-        final List<JsonMap> jsonMaps = content.toList();
+    private JsonMap get(String key, List<JsonMap> jsonMaps) {
         return switch (jsonMaps.size()) {
             case 0 -> throw new IllegalArgumentException("key=" + key + " cannot be found");
             case 1 -> jsonMaps.get(0);
@@ -4,6 +4,8 @@ package de.phil.json.mapper;
 
 import de.phil.json.mapper.impl.JsonListImpl;
 import de.phil.json.mapper.impl.JsonMapImpl;
+import de.phil.json.mapper.patch.JsonMergePatch;
+import de.phil.json.mapper.patch.JsonPatch;
 import de.phil.json.typeconverter.TypeConverter;
 import org.jetbrains.annotations.NotNull;
 
@@ -173,10 +175,19 @@ public interface JsonMap extends Map<String, Object> {
         if (isOptimizedFor(clazz)) {
             return (T) get(key);
         }
+        if (isLazilyOptimizedFor(clazz) && (get(key) instanceof final Map<?, ?> value)) {
+            final T map = (T) JsonMapping.wrapLazily(value, (Class<? extends JsonMap>) clazz);
+            if ((map != value) && !isFrozen()) {
+                put(key, map);
+            }
+            return map;
+        }
         TypeConverter.registerIfAbsent(clazz, value -> JsonMapping.copyValue(value, clazz));
         final T map = getAs(key, clazz);
         // store converted map so next time we can cast and don't need to convert
-        put(key, map);
+        if (!isFrozen()) {
+            put(key, map);
+        }
         return map;
     }
 
@@ -191,6 +202,101 @@ public interface JsonMap extends Map<String, Object> {
         return TypeConverter.convert(get(key), clazz);
     }
 
+    /**
+     * Gets value under given key as <code>int</code>.
+     * @param key key.
+     * @param defaultValue Value if there is no value under key.
+     * @return value under key.
+     */
+    default int getInt(String key, int defaultValue) {
+        return TypeConverter.toInt(get(key), defaultValue);
+    }
+
+    /**
+     * Gets value under given key as <code>long</code>.
+     * @param key key.
+     * @param defaultValue Value if there is no value under key.
+     * @return value under key.
+     */
+    default long getLong(String key, long defaultValue) {
+        return TypeConverter.toLong(get(key), defaultValue);
+    }
+
+    /**
+     * Gets value under given key as <code>double</code>.
+     * @param key key.
+     * @param defaultValue Value if there is no value under key.
+     * @return value under key.
+     */
+    default double getDouble(String key, double defaultValue) {
+        return TypeConverter.toDouble(get(key), defaultValue);
+    }
+
+    /**
+     * Gets value under given key as <code>boolean</code>.
+     * @param key key.
+     * @param defaultValue Value if there is no value under key.
+     * @return value under key.
+     */
+    default boolean getBoolean(String key, boolean defaultValue) {
+        return TypeConverter.toBoolean(get(key), defaultValue);
+    }
+
+    /**
+     * Gets value the path points to (see {@link JsonPath}), e.g. <code>mapOfMaps.map1.b</code> or <code>cars[2].extras[0]</code>.
+     * @param path Path expression.
+     * @return value or <code>null</code> if the path doesn't exist.
+     */
+    default Object getPath(String path) {
+        return JsonPath.compile(path).evaluate(this);
+    }
+
+    /**
+     * Gets value the path points to (see {@link JsonPath}) converted into the given class.
+     * @param path Path expression.
+     * @param clazz Class to convert to.
+     * @param <T> Type of value.
+     * @return converted value or <code>null</code> if the path doesn't exist.
+     */
+    default <T> T getPath(String path, Class<T> clazz) {
+        return JsonPath.compile(path).evaluate(this, clazz);
+    }
+
+    /**
+     * Computes the fingerprint of the content of this map (see {@link JsonFingerprint}).
+     * Frozen, persistent and tracking maps compute it only once.
+     * @return fingerprint.
+     */
+    default long fingerprint() {
+        return JsonFingerprint.ofEntries(this);
+    }
+
+    /**
+     * Checks whether the map keeps its fingerprint once computed, so calling {@link #fingerprint()} again is cheap.
+     *
+     * @return true if the fingerprint is cached.
+     */
+    default boolean isFingerprintCached() {
+        return false;
+    }
+
+    /**
+     * Applies a JSON Patch (RFC 6902) to this map in place (see {@link JsonPatch#apply(JsonMap)}).
+     * @param patch Patch.
+     * @throws IllegalArgumentException an operation failed, the map is unchanged.
+     */
+    default void applyPatch(@NotNull JsonPatch patch) throws IllegalArgumentException {
+        patch.apply(this);
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7386) to this map in place (see {@link JsonMergePatch#apply(JsonMap)}).
+     * @param patch Patch.
+     */
+    default void applyMergePatch(@NotNull JsonMergePatch patch) {
+        patch.apply(this);
+    }
+
     /**
      * Gets value under given key as {@link JsonList}.
      *
@@ -213,13 +319,28 @@ public interface JsonMap extends Map<String, Object> {
         if (isOptimizedFor(clazz)) {
             return (JsonList) get(key);
         }
+        if (isLazilyOptimizedFor(clazz) && (get(key) instanceof final List<?> value)) {
+            if ((value instanceof final JsonList jsonList) && (jsonList.isEmpty() || clazz.isInstance(jsonList.get(0)))) {
+                return jsonList;
+            }
+            final JsonList listOfMaps = value.stream()
+                                             .map(o -> (o instanceof final Map<?, ?> map) ? JsonMapping.wrapLazily(map, clazz)
+                                                                                           : JsonMapping.writeValueAsMap(o, clazz))
+                                             .collect(Collectors.toCollection(JsonListImpl::new));
+            if (!isFrozen()) {
+                put(key, listOfMaps);
+            }
+            return listOfMaps;
+        }
         final List<?> currentValue = getAs(key, List.class);
         final JsonList listOfMaps = currentValue.stream()
                                                 .map(o -> JsonMapping.writeValueAsMap(o, JsonMapImpl.class))
                                                 .collect(Collectors.toCollection(JsonListImpl::new));
 
         // store converted list so next time we can cast and don't need to convert
-        put(key, listOfMaps);
+        if (!isFrozen()) {
+            put(key, listOfMaps);
+        }
         return listOfMaps;
     }
 
@@ -242,6 +363,61 @@ public interface JsonMap extends Map<String, Object> {
         return false;
     }
 
+    /**
+     * Sets the class map is lazily optimized for.
+     *
+     * @param clazz Class for lazy optimization.
+     */
+    default void setLazilyOptimizedFor(Class<? extends JsonMap> clazz) {
+    }
+
+    /**
+     * Checks whether map is lazily optimized for given class.
+     * @param clazz Class for optimization.
+     *
+     * @return true if map is lazily optimized for the given class.
+     */
+    @SuppressWarnings("rawtypes")
+    default boolean isLazilyOptimizedFor(Class<? extends Map> clazz) {
+        return false;
+    }
+
+    /**
+     * Optimize map lazily. In contrast to {@link #optimize(Class)} nothing is converted up front:
+     * maps and lists of maps are wrapped into the given class on first access by {@link #getAsMap(String, Class)}
+     * and {@link #getAsJsonList(String, Class)}, and the wrapped maps are lazily optimized themselves.
+     * So the cost of optimization is proportional to the part of the map that is actually read.
+     * @param clazz Class for optimization.
+     */
+    default void optimizeLazily(@NotNull Class<? extends JsonMap> clazz) {
+        if (clazz.isInterface()) {
+            throw new IllegalArgumentException(JsonMap.class.getSimpleName() + " cannot be optimized for interfaces");
+        }
+        setOptimizedFor(null);
+        setLazilyOptimizedFor(clazz);
+    }
+
+    /**
+     * Freezes the map: optimizes it for the given class (see {@link #optimize(Class)}) and makes it and all nested maps
+     * and lists read-only. Afterwards no method changes the map, not even the getters converting values, so a frozen map
+     * that has been published safely (e.g. through a final or volatile field) can be read by many threads without locking.
+     * Methods changing a frozen map throw {@link UnsupportedOperationException}.
+     * @param clazz Class for optimization.
+     * @throws UnsupportedOperationException the map cannot be frozen.
+     */
+    default void freeze(@NotNull Class<? extends JsonMap> clazz) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be frozen");
+    }
+
+    /**
+     * Checks whether map is frozen (see {@link #freeze(Class)}).
+     *
+     * @return true if map is frozen.
+     */
+    default boolean isFrozen() {
+        return false;
+    }
+
     /**
      * Optimize map. Optimization allows class-casts instead of transformations of map- and list-types.
      * @param clazz Class for optimization.
@@ -0,0 +1,178 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator reading one {@link JsonMap} at a time from a parser.
+ * <p>
+ * Each map is optimized like a map returned by {@link JsonMapping#readJson(String, Class)}. <code>null</code>-elements of an array
+ * are returned as <code>null</code>, only iterators over documents skip <code>null</code>-values (i.e. empty documents).
+ * The iterator must be closed if it is not read to the end.
+ *
+ * @param <T> Type of maps.
+ */
+public class JsonMapIterator<T extends JsonMap> implements Iterator<T>, Closeable {
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private final Closeable source;
+    private final Class<T> clazz;
+    private final boolean skipNulls;
+    private T next;
+    private boolean hasNext;
+    private boolean closed;
+
+    /**
+     * Creates iterator over the values of a parser.
+     *
+     * @param mapper    Mapper.
+     * @param parser    Parser positioned before the first value.
+     * @param source    Source to close with the parser (optional).
+     * @param clazz     Class of maps.
+     * @param skipNulls Whether <code>null</code>-values are skipped, e.g. empty YAML documents.
+     */
+    JsonMapIterator(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Closeable source, @NotNull Class<T> clazz, boolean skipNulls) {
+        this.mapper = mapper;
+        this.parser = parser;
+        this.source = source;
+        this.clazz = clazz;
+        this.skipNulls = skipNulls;
+    }
+
+    /**
+     * Creates iterator over the elements of the array the pointer points to.
+     *
+     * @param mapper  Mapper.
+     * @param parser  Parser positioned before the document.
+     * @param source  Source to close with the parser (optional).
+     * @param pointer JSON pointer to the array.
+     * @param clazz   Class of maps.
+     * @param <T>     Type of maps.
+     * @return Iterator.
+     * @throws IOException Reading failed.
+     */
+    static <T extends JsonMap> JsonMapIterator<T> overArray(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Closeable source,
+                                                            @NotNull String pointer, @NotNull Class<T> clazz) throws IOException {
+        final JsonMapIterator<T> iterator = new JsonMapIterator<>(mapper, parser, source, clazz, false);
+        try {
+            moveToArray(parser, JsonPointer.compile(pointer));
+        } catch (IOException | RuntimeException e) {
+            iterator.close();
+            throw e;
+        }
+        return iterator;
+    }
+
+    private static void moveToArray(@NotNull JsonParser parser, @NotNull JsonPointer pointer) throws IOException {
+        JsonToken token = parser.nextToken();
+        for (JsonPointer current = pointer; !current.matches(); current = current.tail()) {
+            if (token == JsonToken.START_OBJECT) {
+                token = moveToProperty(parser, current.getMatchingProperty());
+            } else if (token == JsonToken.START_ARRAY && current.getMatchingIndex() >= 0) {
+                token = moveToIndex(parser, current.getMatchingIndex());
+            } else {
+                token = null;
+            }
+            if (token == null) {
+                throw new IllegalArgumentException("path=" + pointer + " cannot be found");
+            }
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("path=" + pointer + " is not an array");
+        }
+    }
+
+    private static JsonToken moveToProperty(@NotNull JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final boolean found = name.equals(parser.getCurrentName());
+            final JsonToken value = parser.nextToken();
+            if (found) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static JsonToken moveToIndex(@NotNull JsonParser parser, int index) throws IOException {
+        for (int i = 0; ; i++) {
+            final JsonToken value = parser.nextToken();
+            if (value == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (i == index) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    @SneakyThrows(IOException.class)
+    @Override
+    public boolean hasNext() {
+        while (!hasNext && !closed) {
+            final JsonToken token = parser.nextToken();
+            if ((token == null) || (token == JsonToken.END_ARRAY)) {
+                close();
+            } else if (token != JsonToken.VALUE_NULL) {
+                next = JsonMapping.readValue(mapper, parser, clazz);
+                hasNext = true;
+            } else if (!skipNulls) {
+                next = null;
+                hasNext = true;
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T t = next;
+        next = null;
+        hasNext = false;
+        return t;
+    }
+
+    /**
+     * Creates a sequential stream over the remaining maps. Closing the stream closes the iterator.
+     *
+     * @return stream.
+     */
+    public Stream<T> stream() {
+        final int characteristics = skipNulls ? (Spliterator.ORDERED | Spliterator.NONNULL) : Spliterator.ORDERED;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false)
+                            .onClose(this::close);
+    }
+
+    @SneakyThrows(IOException.class)
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            next = null;
+            hasNext = false;
+            try (source) {
+                parser.close();
+            }
+        }
+    }
+}
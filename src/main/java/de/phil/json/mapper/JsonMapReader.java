@@ -0,0 +1,184 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.phil.json.mapper.impl.JsonListImpl;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads JSON directly into optimized {@link JsonMap}s.
+ * <p>
+ * Objects are read into instances of the requested class and arrays of objects into {@link JsonListImpl}s,
+ * so the result is optimized in one pass without converting it afterwards (see {@link JsonMap#optimize(Class)}).
+ * Scalars are read like Jackson reads untyped values. Keys and string values can be deduplicated by a {@link StringCache}.
+ *
+ * @param <T> Type of maps.
+ */
+final class JsonMapReader<T extends JsonMap> {
+
+    private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(@NotNull Class<?> type) {
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                return null;
+            }
+            try {
+                final Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException | InaccessibleObjectException e) {
+                return null;
+            }
+        }
+    };
+
+    private final JsonParser parser;
+    private final Class<T> clazz;
+    private final boolean bigDecimals;
+    private final boolean bigIntegers;
+    private final boolean longs;
+    private final StringCache strings;
+
+    /**
+     * Creates reader.
+     *
+     * @param mapper  Mapper whose deserialization features are used.
+     * @param parser  Parser.
+     * @param clazz   Class of maps.
+     * @param strings Cache for keys and string values or <code>null</code> to not deduplicate strings.
+     */
+    JsonMapReader(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, @NotNull Class<T> clazz, StringCache strings) {
+        this.parser = parser;
+        this.clazz = clazz;
+        this.strings = strings;
+        this.bigDecimals = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.bigIntegers = mapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS);
+        this.longs = mapper.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS);
+    }
+
+    /**
+     * Checks whether maps of given class can be read directly, i.e. the class is a concrete {@link JsonMap}
+     * with a no-args constructor.
+     *
+     * @param clazz Class of maps.
+     * @return true if maps can be read directly.
+     */
+    static boolean canRead(@NotNull Class<?> clazz) {
+        return JsonMap.class.isAssignableFrom(clazz) && (CONSTRUCTORS.get(clazz) != null);
+    }
+
+    /**
+     * Creates an empty map of given class.
+     *
+     * @param clazz Class of map (see {@link #canRead(Class)}).
+     * @param <T>   Type of map.
+     * @return new map.
+     */
+    @SuppressWarnings("unchecked")
+    @SneakyThrows(ReflectiveOperationException.class)
+    static <T extends JsonMap> T newMap(@NotNull Class<T> clazz) {
+        final Constructor<?> constructor = CONSTRUCTORS.get(clazz);
+        if (constructor == null) {
+            throw new IllegalArgumentException(clazz.getSimpleName() + " cannot be created by a no-args constructor");
+        }
+        return (T) constructor.newInstance();
+    }
+
+    /**
+     * Reads the object the parser is positioned at.
+     *
+     * @return optimized map.
+     * @throws IOException Reading failed.
+     */
+    T read() throws IOException {
+        final T map = newMap(clazz);
+        for (String key = parser.nextFieldName(); key != null; key = parser.nextFieldName()) {
+            map.put((strings != null) ? strings.key(key) : key, readValue(parser.nextToken()));
+        }
+        map.setOptimizedFor(clazz);
+        return map;
+    }
+
+    private Object readValue(JsonToken token) throws IOException {
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of content");
+        }
+        return switch (token) {
+            case START_OBJECT -> read();
+            case START_ARRAY -> readList();
+            case VALUE_STRING -> readString();
+            case VALUE_NUMBER_INT -> readInteger();
+            case VALUE_NUMBER_FLOAT -> readDecimal();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            case VALUE_EMBEDDED_OBJECT -> parser.getEmbeddedObject();
+            default -> throw new JsonParseException(parser, "Unexpected token " + token);
+        };
+    }
+
+    private String readString() throws IOException {
+        if ((strings != null) && strings.isCached(parser.getTextLength())) {
+            return strings.value(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return parser.getText();
+    }
+
+    private Object readDecimal() throws IOException {
+        if (bigDecimals && !parser.isNaN()) {
+            return parser.getDecimalValue();
+        }
+        if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+            // buffered copies keep decimals exact, a JSON text parser would have returned a double
+            return parser.getDoubleValue();
+        }
+        return parser.getNumberValue();
+    }
+
+    private Object readInteger() throws IOException {
+        if (bigIntegers) {
+            return parser.getBigIntegerValue();
+        }
+        if (longs && (parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER)) {
+            return parser.getLongValue();
+        }
+        return parser.getNumberValue();
+    }
+
+    /**
+     * Reads array into a {@link JsonListImpl} if all elements are maps, otherwise into an {@link ArrayList}.
+     */
+    private List<?> readList() throws IOException {
+        final JsonListImpl maps = new JsonListImpl();
+        List<Object> values = null;
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            final Object value = readValue(token);
+            if ((values == null) && (value instanceof final JsonMap map)) {
+                maps.add(map);
+            } else {
+                if (values == null) {
+                    values = new ArrayList<>(maps);
+                }
+                values.add(value);
+            }
+        }
+        if (values != null) {
+            return values;
+        }
+        // empty arrays stay plain lists, like after optimization
+        return maps.isEmpty() ? new ArrayList<>() : maps;
+    }
+}
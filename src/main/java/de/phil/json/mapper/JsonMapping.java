@@ -3,20 +3,41 @@
 package de.phil.json.mapper;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import de.phil.json.mapper.impl.JsonMapImpl;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Utility for dealing with JSON and YAML.
+ * Utility for dealing with JSON and YAML and the binary formats Smile and CBOR.
  */
 public class JsonMapping {
 
@@ -25,10 +46,24 @@ public class JsonMapping {
                                                                      .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
     private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private static final ObjectMapper YAML_MAPPER= new ObjectMapper(YAML_FACTORY);
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+    // the type header lets readAnyFormat() recognize CBOR of any value
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(CBORFactory.builder().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build());
+    private static final JsonFactory YAML_DOCUMENTS_FACTORY = YAML_FACTORY.copy()
+                                                                      .enable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                                                                      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    /**
+     * Number of bytes looked at to detect the format (see {@link #readAnyFormat(InputStream, Class)}).
+     */
+    private static final int HEADER_LENGTH = 64;
+
 
     static {
         configure(JSON_MAPPER);
         configure(YAML_MAPPER);
+        configure(SMILE_MAPPER);
+        configure(CBOR_MAPPER);
     }
 
     private static void configure(@NotNull ObjectMapper mapper) {
@@ -37,6 +72,9 @@ public class JsonMapping {
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         mapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        // streams and channels are owned by the caller
+        mapper.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
     }
 
     /**
@@ -47,9 +85,9 @@ public class JsonMapping {
      * @param <T>   Type of class.
      * @return Object containing JSON data.
      */
-    @SneakyThrows(JsonProcessingException.class)
+    @SneakyThrows(IOException.class)
     public static <T> T readJson(String json, Class<T> clazz) {
-        return read(JSON_MAPPER, json, clazz);
+        return read(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz);
     }
 
     /**
@@ -60,20 +98,639 @@ public class JsonMapping {
      * @param <T>   Type of class.
      * @return Object containing YAML data.
      */
-    @SneakyThrows(JsonProcessingException.class)
+    @SneakyThrows(IOException.class)
     public static <T> T readYaml(String yaml, Class<T> clazz) {
-        return read(YAML_MAPPER, yaml, clazz);
+        return read(YAML_MAPPER, YAML_MAPPER.createParser(yaml), clazz);
+    }
+
+    /**
+     * Reads JSON and creates object, deduplicating keys and short string values of maps read directly
+     * (see {@link StringCache}). Reads sharing a cache share the instances of repeated strings.
+     *
+     * @param json    JSON data
+     * @param clazz   Class to instantiate.
+     * @param strings Cache for keys and string values.
+     * @param <T>     Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readJson(String json, Class<T> clazz, @NotNull StringCache strings) {
+        return read(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz, strings);
+    }
+
+    /**
+     * Reads YAML and creates object, deduplicating strings (see {@link #readJson(String, Class, StringCache)}).
+     *
+     * @param yaml    YAML data
+     * @param clazz   Class to instantiate.
+     * @param strings Cache for keys and string values.
+     * @param <T>     Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readYaml(String yaml, Class<T> clazz, @NotNull StringCache strings) {
+        return read(YAML_MAPPER, YAML_MAPPER.createParser(yaml), clazz, strings);
+    }
+
+    /**
+     * Reads JSON from a stream and creates object, deduplicating strings (see {@link #readJson(String, Class, StringCache)}).
+     * The stream is not closed.
+     *
+     * @param json    JSON data
+     * @param clazz   Class to instantiate.
+     * @param strings Cache for keys and string values.
+     * @param <T>     Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readJson(InputStream json, Class<T> clazz, @NotNull StringCache strings) {
+        return read(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz, strings);
+    }
+
+    /**
+     * Reads YAML from a stream and creates object, deduplicating strings (see {@link #readJson(String, Class, StringCache)}).
+     * The stream is not closed.
+     *
+     * @param yaml    YAML data
+     * @param clazz   Class to instantiate.
+     * @param strings Cache for keys and string values.
+     * @param <T>     Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readYaml(InputStream yaml, Class<T> clazz, @NotNull StringCache strings) {
+        return read(YAML_MAPPER, YAML_MAPPER.createParser(yaml), clazz, strings);
+    }
+
+    /**
+     * Reads JSON into a lazily optimized map (see {@link JsonMap#optimizeLazily(Class)}). Nested maps and lists of maps
+     * are only optimized when they are accessed, so the cost of reading is proportional to what is actually read.
+     *
+     * @param json  JSON data
+     * @param clazz Class of map.
+     * @param <T>   Type of map.
+     * @return Map containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> T readJsonLazily(String json, Class<T> clazz) {
+        return readLazily(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz);
+    }
+
+    /**
+     * Reads YAML into a lazily optimized map (see {@link #readJsonLazily(String, Class)}).
+     *
+     * @param yaml  YAML data
+     * @param clazz Class of map.
+     * @param <T>   Type of map.
+     * @return Map containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> T readYamlLazily(String yaml, Class<T> clazz) {
+        return readLazily(YAML_MAPPER, YAML_MAPPER.createParser(yaml), clazz);
+    }
+
+    /**
+     * Reads JSON from a stream into a lazily optimized map (see {@link #readJsonLazily(String, Class)}). The stream is not closed.
+     *
+     * @param json  JSON data
+     * @param clazz Class of map.
+     * @param <T>   Type of map.
+     * @return Map containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> T readJsonLazily(InputStream json, Class<T> clazz) {
+        return readLazily(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz);
+    }
+
+    /**
+     * Reads JSON from a stream and creates object. The stream is not closed.
+     *
+     * @param json  JSON data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readJson(InputStream json, Class<T> clazz) {
+        return read(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz);
+    }
+
+    /**
+     * Reads JSON from a reader and creates object. The reader is not closed.
+     *
+     * @param json  JSON data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readJson(Reader json, Class<T> clazz) {
+        return read(JSON_MAPPER, JSON_MAPPER.createParser(json), clazz);
     }
 
+    /**
+     * Reads JSON from a file and creates object.
+     *
+     * @param json  JSON file
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readJson(Path json, Class<T> clazz) {
+        try (InputStream in = Files.newInputStream(json)) {
+            return readJson(in, clazz);
+        }
+    }
+
+    /**
+     * Reads JSON from the remaining bytes of a buffer and creates object. The position of the buffer is not changed.
+     *
+     * @param json  JSON data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readJson(ByteBuffer json, Class<T> clazz) {
+        return read(JSON_MAPPER, createParser(JSON_MAPPER, json), clazz);
+    }
+
+    /**
+     * Reads YAML from a stream and creates object. The stream is not closed.
+     *
+     * @param yaml  YAML data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readYaml(InputStream yaml, Class<T> clazz) {
+        return read(YAML_MAPPER, YAML_MAPPER.createParser(yaml), clazz);
+    }
+
+    /**
+     * Reads YAML from a reader and creates object. The reader is not closed.
+     *
+     * @param yaml  YAML data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readYaml(Reader yaml, Class<T> clazz) {
+        return read(YAML_MAPPER, YAML_MAPPER.createParser(yaml), clazz);
+    }
+
+    /**
+     * Reads YAML from a file and creates object.
+     *
+     * @param yaml  YAML file
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readYaml(Path yaml, Class<T> clazz) {
+        try (InputStream in = Files.newInputStream(yaml)) {
+            return readYaml(in, clazz);
+        }
+    }
+
+    /**
+     * Reads YAML from the remaining bytes of a buffer and creates object. The position of the buffer is not changed.
+     *
+     * @param yaml  YAML data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readYaml(ByteBuffer yaml, Class<T> clazz) {
+        return read(YAML_MAPPER, createParser(YAML_MAPPER, yaml), clazz);
+    }
+
+    /**
+     * Reads Smile and creates object.
+     *
+     * @param smile Smile data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing Smile data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readSmile(byte[] smile, Class<T> clazz) {
+        return read(SMILE_MAPPER, SMILE_MAPPER.createParser(smile), clazz);
+    }
+
+    /**
+     * Reads Smile from a stream and creates object. The stream is not closed.
+     *
+     * @param smile Smile data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing Smile data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readSmile(InputStream smile, Class<T> clazz) {
+        return read(SMILE_MAPPER, SMILE_MAPPER.createParser(smile), clazz);
+    }
+
+    /**
+     * Reads Smile from a file and creates object.
+     *
+     * @param smile Smile file
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing Smile data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readSmile(Path smile, Class<T> clazz) {
+        try (InputStream in = Files.newInputStream(smile)) {
+            return readSmile(in, clazz);
+        }
+    }
+
+    /**
+     * Reads CBOR and creates object.
+     *
+     * @param cbor  CBOR data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing CBOR data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readCbor(byte[] cbor, Class<T> clazz) {
+        return read(CBOR_MAPPER, CBOR_MAPPER.createParser(cbor), clazz);
+    }
+
+    /**
+     * Reads CBOR from a stream and creates object. The stream is not closed.
+     *
+     * @param cbor  CBOR data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing CBOR data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readCbor(InputStream cbor, Class<T> clazz) {
+        return read(CBOR_MAPPER, CBOR_MAPPER.createParser(cbor), clazz);
+    }
+
+    /**
+     * Reads CBOR from a file and creates object.
+     *
+     * @param cbor  CBOR file
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing CBOR data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readCbor(Path cbor, Class<T> clazz) {
+        try (InputStream in = Files.newInputStream(cbor)) {
+            return readCbor(in, clazz);
+        }
+    }
+
+    /**
+     * Reads JSON, YAML, Smile or CBOR and creates object. The format is detected from the first bytes:
+     * Smile starts with its header <code>:)\n</code>, CBOR with its type tag or a map or array,
+     * JSON with <code>{</code> or <code>[</code> and anything else is read as YAML.
+     *
+     * @param data  Data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing the data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readAnyFormat(byte[] data, Class<T> clazz) {
+        final ObjectMapper mapper = detectFormat(data, data.length);
+        return read(mapper, mapper.createParser(data), clazz);
+    }
+
+    /**
+     * Reads JSON, YAML, Smile or CBOR from a stream and creates object (see {@link #readAnyFormat(byte[], Class)}).
+     * The stream is not closed.
+     *
+     * @param data  Data
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing the data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readAnyFormat(InputStream data, Class<T> clazz) {
+        final InputStream in = data.markSupported() ? data : new BufferedInputStream(data);
+        in.mark(HEADER_LENGTH);
+        final byte[] header = in.readNBytes(HEADER_LENGTH);
+        in.reset();
+        final ObjectMapper mapper = detectFormat(header, header.length);
+        return read(mapper, mapper.createParser(in), clazz);
+    }
+
+    /**
+     * Reads JSON, YAML, Smile or CBOR from a file and creates object (see {@link #readAnyFormat(byte[], Class)}).
+     *
+     * @param data  File
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing the data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readAnyFormat(Path data, Class<T> clazz) {
+        try (InputStream in = Files.newInputStream(data)) {
+            return readAnyFormat(in, clazz);
+        }
+    }
+
+    /**
+     * Reads JSON from a file that is mapped into memory and creates object.
+     * <p>
+     * The file is parsed from the mapped memory instead of being read into the heap first,
+     * which is faster for large files. Files larger than 2 GB are mapped in segments.
+     *
+     * @param json  JSON file
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing JSON data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readMappedJson(Path json, Class<T> clazz) {
+        return read(JSON_MAPPER, JSON_MAPPER.createParser(MappedFile.map(json).newInputStream()), clazz);
+    }
+
+    /**
+     * Reads YAML from a file that is mapped into memory and creates object.
+     * <p>
+     * The file is parsed from the mapped memory instead of being read into the heap first,
+     * which is faster for large files. Files larger than 2 GB are mapped in segments.
+     *
+     * @param yaml  YAML file
+     * @param clazz Class to instantiate.
+     * @param <T>   Type of class.
+     * @return Object containing YAML data.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T> T readMappedYaml(Path yaml, Class<T> clazz) {
+        return read(YAML_MAPPER, YAML_MAPPER.createParser(MappedFile.map(yaml).newInputStream()), clazz);
+    }
+
+    /**
+     * Iterates over the maps of a JSON array without reading the whole array.
+     * Only one map is held in memory at a time.
+     *
+     * @param json    JSON data. The stream is not closed.
+     * @param pointer JSON pointer to the array, e.g. <code>/cars</code> (empty for a top-level array).
+     * @param clazz   Class of maps.
+     * @param <T>     Type of maps.
+     * @return Iterator over the maps. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateJson(InputStream json, String pointer, Class<T> clazz) {
+        return JsonMapIterator.overArray(JSON_MAPPER, JSON_MAPPER.createParser(json), null, pointer, clazz);
+    }
+
+    /**
+     * Iterates over the maps of a JSON array in a file without reading the whole array.
+     * Only one map is held in memory at a time.
+     *
+     * @param json    JSON file.
+     * @param pointer JSON pointer to the array, e.g. <code>/cars</code> (empty for a top-level array).
+     * @param clazz   Class of maps.
+     * @param <T>     Type of maps.
+     * @return Iterator over the maps. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateJson(Path json, String pointer, Class<T> clazz) {
+        final InputStream in = Files.newInputStream(json);
+        return JsonMapIterator.overArray(JSON_MAPPER, JSON_MAPPER.createParser(in), in, pointer, clazz);
+    }
+
+    /**
+     * Iterates over the maps of a YAML array without reading the whole array.
+     * Only one map is held in memory at a time.
+     *
+     * @param yaml    YAML data. The stream is not closed.
+     * @param pointer JSON pointer to the array, e.g. <code>/cars</code> (empty for a top-level array).
+     * @param clazz   Class of maps.
+     * @param <T>     Type of maps.
+     * @return Iterator over the maps. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateYaml(InputStream yaml, String pointer, Class<T> clazz) {
+        return JsonMapIterator.overArray(YAML_MAPPER, YAML_MAPPER.createParser(yaml), null, pointer, clazz);
+    }
+
+    /**
+     * Iterates over the maps of a YAML array in a file without reading the whole array.
+     * Only one map is held in memory at a time.
+     *
+     * @param yaml    YAML file.
+     * @param pointer JSON pointer to the array, e.g. <code>/cars</code> (empty for a top-level array).
+     * @param clazz   Class of maps.
+     * @param <T>     Type of maps.
+     * @return Iterator over the maps. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateYaml(Path yaml, String pointer, Class<T> clazz) {
+        final InputStream in = Files.newInputStream(yaml);
+        return JsonMapIterator.overArray(YAML_MAPPER, YAML_MAPPER.createParser(in), in, pointer, clazz);
+    }
+
+    /**
+     * Iterates over the documents of a YAML stream containing multiple documents separated by <code>---</code>.
+     * Only one document is held in memory at a time, empty documents are skipped.
+     *
+     * @param yaml  YAML data. The stream is not closed.
+     * @param clazz Class of maps.
+     * @param <T>   Type of maps.
+     * @return Iterator over the documents. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateYamlDocuments(InputStream yaml, Class<T> clazz) {
+        return new JsonMapIterator<>(YAML_MAPPER, YAML_MAPPER.createParser(yaml), null, clazz, true);
+    }
+
+    /**
+     * Iterates over the documents of a YAML file containing multiple documents separated by <code>---</code>.
+     * Only one document is held in memory at a time, empty documents are skipped.
+     *
+     * @param yaml  YAML file.
+     * @param clazz Class of maps.
+     * @param <T>   Type of maps.
+     * @return Iterator over the documents. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateYamlDocuments(Path yaml, Class<T> clazz) {
+        final InputStream in = Files.newInputStream(yaml);
+        return new JsonMapIterator<>(YAML_MAPPER, YAML_MAPPER.createParser(in), in, clazz, true);
+    }
+
+    /**
+     * Creates a writer for a YAML stream containing multiple documents. Each value is written as its own document
+     * starting with <code>---</code>.
+     *
+     * @param out Stream to write to. The stream is not closed when the writer is closed.
+     * @return writer.
+     */
+    @SneakyThrows(IOException.class)
+    public static JsonSequenceWriter writeYamlDocuments(OutputStream out) {
+        final JsonGenerator generator = YAML_DOCUMENTS_FACTORY.createGenerator(out);
+        return new JsonSequenceWriter(YAML_MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE), generator, null);
+    }
+
+    /**
+     * Iterates over the maps of newline-delimited JSON (NDJSON, JSON Lines).
+     *
+     * @param ndJson NDJSON data. The stream is not closed.
+     * @param clazz  Class of maps.
+     * @param <T>    Type of maps.
+     * @return Iterator over the maps. Must be closed.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> JsonMapIterator<T> iterateNdJson(InputStream ndJson, Class<T> clazz) {
+        return new JsonMapIterator<>(JSON_MAPPER, JSON_MAPPER.createParser(ndJson), null, clazz, false);
+    }
+
+    /**
+     * Streams the maps of a newline-delimited JSON file (NDJSON, JSON Lines).
+     * <p>
+     * The file is mapped into memory and split at line boundaries, so a {@link Stream#parallel() parallel} stream
+     * parses the file on all cores.
+     *
+     * @param ndJson NDJSON file.
+     * @param clazz  Class of maps.
+     * @param <T>    Type of maps.
+     * @return Stream of maps.
+     */
+    @SneakyThrows(IOException.class)
+    public static <T extends JsonMap> Stream<T> streamNdJson(Path ndJson, Class<T> clazz) {
+        return StreamSupport.stream(new NdJsonSpliterator<>(JSON_MAPPER, MappedFile.map(ndJson), clazz), false);
+    }
+
+    /**
+     * Creates a writer for newline-delimited JSON (NDJSON, JSON Lines). Each value is written on its own line.
+     *
+     * @param out Stream to write to. The stream is not closed when the writer is closed.
+     * @return writer.
+     */
+    @SneakyThrows(IOException.class)
+    public static JsonSequenceWriter writeNdJson(OutputStream out) {
+        final JsonGenerator generator = JSON_MAPPER.createGenerator(out);
+        generator.setRootValueSeparator(null);
+        return new JsonSequenceWriter(JSON_MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE), generator, "\n");
+    }
+
+    @NotNull
+    private static ObjectMapper detectFormat(byte[] header, int length) {
+        if ((length >= 3) && (header[0] == ':') && (header[1] == ')') && (header[2] == '\n')) {
+            return SMILE_MAPPER;
+        }
+        // CBOR type tag 0xD9D9F7 or major type array (0x80 - 0x9F) or map (0xA0 - 0xBF), which cannot start UTF-8 text
+        final int first = (length > 0) ? (header[0] & 0xFF) : 0;
+        if (((length >= 3) && (first == 0xD9) && ((header[1] & 0xFF) == 0xD9) && ((header[2] & 0xFF) == 0xF7))
+                || ((first >= 0x80) && (first < 0xC0))) {
+            return CBOR_MAPPER;
+        }
+        int i = ((length >= 3) && (first == 0xEF) && ((header[1] & 0xFF) == 0xBB) && ((header[2] & 0xFF) == 0xBF)) ? 3 : 0;
+        while ((i < length) && ((header[i] == ' ') || (header[i] == '\t') || (header[i] == '\r') || (header[i] == '\n'))) {
+            i++;
+        }
+        return ((i == length) || (header[i] == '{') || (header[i] == '[')) ? JSON_MAPPER : YAML_MAPPER;
+    }
+
+    @NotNull
+    private static JsonParser createParser(@NotNull ObjectMapper mapper, @NotNull ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return mapper.createParser(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return mapper.createParser(new ByteBufferBackedInputStream(buffer.duplicate()));
+    }
+
+    private static <T> T read(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Class<T> clazz) throws IOException {
+        return read(mapper, parser, clazz, null);
+    }
+
+    private static <T> T read(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Class<T> clazz, StringCache strings) throws IOException {
+        try (parser) {
+            return readValue(mapper, parser, clazz, strings);
+        }
+    }
+
+    /**
+     * Reads the value at the current token of the parser (or at the next token if there is no current token).
+     *
+     * @param mapper Mapper.
+     * @param parser Parser.
+     * @param clazz  Class to instantiate.
+     * @param <T>    Type of class.
+     * @return Object containing the data.
+     * @throws IOException Reading failed.
+     */
+    static <T> T readValue(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Class<T> clazz) throws IOException {
+        return readValue(mapper, parser, clazz, null);
+    }
+
+    /**
+     * Reads the value at the current token of the parser (or at the next token if there is no current token).
+     *
+     * @param mapper  Mapper.
+     * @param parser  Parser.
+     * @param clazz   Class to instantiate.
+     * @param strings Cache for keys and string values of maps read directly or <code>null</code> to not deduplicate strings.
+     * @param <T>     Type of class.
+     * @return Object containing the data.
+     * @throws IOException Reading failed.
+     */
     @SuppressWarnings("unchecked")
-    private static <T> T read(@NotNull ObjectMapper mapper, String source, Class<T> clazz) throws JsonProcessingException {
-        final T t = mapper.readValue(source, clazz);
+    static <T> T readValue(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Class<T> clazz, StringCache strings) throws IOException {
+        if (JsonMapReader.canRead(clazz) && (currentOrNextToken(parser) == JsonToken.START_OBJECT)) {
+            // the map comes out optimized, optimize() would only walk it
+            return (T) new JsonMapReader<>(mapper, parser, (Class<? extends JsonMap>) clazz, strings).read();
+        }
+        final T t = mapper.readValue(parser, clazz);
         if (!clazz.isInterface() && (t instanceof JsonMap jsonMap)) {
             jsonMap.optimize((Class<? extends JsonMap>) clazz);
         }
         return t;
     }
 
+    private static <T extends JsonMap> T readLazily(@NotNull ObjectMapper mapper, @NotNull JsonParser parser, Class<T> clazz) throws IOException {
+        try (parser) {
+            final T t = mapper.readValue(parser, clazz);
+            if (!clazz.isInterface() && (t != null)) {
+                t.optimizeLazily(clazz);
+            }
+            return t;
+        }
+    }
+
+    private static JsonToken currentOrNextToken(@NotNull JsonParser parser) throws IOException {
+        return parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+    }
+
+    /**
+     * Wraps map into a lazily optimized map of given class. The entries are not copied deeply.
+     *
+     * @param value Map to wrap.
+     * @param clazz Class of map.
+     * @param <T>   Type of map.
+     * @return <code>value</code> if it is of the given class, otherwise a new map with the entries of <code>value</code>.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends JsonMap> T wrapLazily(@NotNull Map<?, ?> value, @NotNull Class<T> clazz) {
+        final T map;
+        if (clazz.isInstance(value)) {
+            map = (T) value;
+        } else {
+            map = JsonMapReader.newMap(clazz);
+            map.putAll((Map<String, Object>) value);
+        }
+        if (!map.isOptimizedFor(clazz) && !map.isLazilyOptimizedFor(clazz)) {
+            map.optimizeLazily(clazz);
+        }
+        return map;
+    }
+
     /**
      * Writes object to JSON String.
      *
@@ -96,6 +753,114 @@ public class JsonMapping {
         return YAML_MAPPER.writeValueAsString(data);
     }
 
+    /**
+     * Writes object as JSON to a stream. The stream is flushed but not closed.
+     *
+     * @param data Data.
+     * @param out  Stream to write to.
+     */
+    @SneakyThrows(IOException.class)
+    public static void writeJson(Object data, OutputStream out) {
+        JSON_MAPPER.writeValue(out, data);
+    }
+
+    /**
+     * Writes object as JSON to a writer. The writer is flushed but not closed.
+     *
+     * @param data Data.
+     * @param out  Writer to write to.
+     */
+    @SneakyThrows(IOException.class)
+    public static void writeJson(Object data, Writer out) {
+        JSON_MAPPER.writeValue(out, data);
+    }
+
+    /**
+     * Writes object as JSON to a channel. The channel is not closed.
+     *
+     * @param data Data.
+     * @param out  Channel to write to.
+     */
+    public static void writeJson(Object data, WritableByteChannel out) {
+        writeJson(data, Channels.newOutputStream(out));
+    }
+
+    /**
+     * Writes object as YAML to a stream. The stream is flushed but not closed.
+     *
+     * @param data Data.
+     * @param out  Stream to write to.
+     */
+    @SneakyThrows(IOException.class)
+    public static void writeYaml(Object data, OutputStream out) {
+        YAML_MAPPER.writeValue(out, data);
+    }
+
+    /**
+     * Writes object as YAML to a writer. The writer is flushed but not closed.
+     *
+     * @param data Data.
+     * @param out  Writer to write to.
+     */
+    @SneakyThrows(IOException.class)
+    public static void writeYaml(Object data, Writer out) {
+        YAML_MAPPER.writeValue(out, data);
+    }
+
+    /**
+     * Writes object as YAML to a channel. The channel is not closed.
+     *
+     * @param data Data.
+     * @param out  Channel to write to.
+     */
+    public static void writeYaml(Object data, WritableByteChannel out) {
+        writeYaml(data, Channels.newOutputStream(out));
+    }
+
+    /**
+     * Writes object to Smile.
+     *
+     * @param data Data.
+     * @return Smile.
+     */
+    @SneakyThrows(JsonProcessingException.class)
+    public static byte[] writeValueAsSmile(Object data) {
+        return SMILE_MAPPER.writeValueAsBytes(data);
+    }
+
+    /**
+     * Writes object as Smile to a stream. The stream is flushed but not closed.
+     *
+     * @param data Data.
+     * @param out  Stream to write to.
+     */
+    @SneakyThrows(IOException.class)
+    public static void writeSmile(Object data, OutputStream out) {
+        SMILE_MAPPER.writeValue(out, data);
+    }
+
+    /**
+     * Writes object to CBOR.
+     *
+     * @param data Data.
+     * @return CBOR.
+     */
+    @SneakyThrows(JsonProcessingException.class)
+    public static byte[] writeValueAsCbor(Object data) {
+        return CBOR_MAPPER.writeValueAsBytes(data);
+    }
+
+    /**
+     * Writes object as CBOR to a stream. The stream is flushed but not closed.
+     *
+     * @param data Data.
+     * @param out  Stream to write to.
+     */
+    @SneakyThrows(IOException.class)
+    public static void writeCbor(Object data, OutputStream out) {
+        CBOR_MAPPER.writeValue(out, data);
+    }
+
     /**
      * Writes data to {@link JsonMap}.
      *
@@ -120,15 +885,20 @@ public class JsonMapping {
 
     /**
      * Copies one object to another.
+     * <p>
+     * The object is serialized into a token buffer which is read back directly, so no JSON text is created.
+     * The copy is the same as reading the result of {@link #writeValueAsString(Object)} with {@link #readJson(String, Class)}.
      *
      * @param data  Object to copy.
      * @param clazz Class to copy object to.
      * @param <T>   Type of object to copy to.
      * @return Copy.
      */
+    @SneakyThrows(IOException.class)
     public static <T> T copyValue(Object data, Class<T> clazz) {
-        final String json = writeValueAsString(data);
-        return readJson(json, clazz);
+        final ValueBuffer buffer = new ValueBuffer(JSON_MAPPER);
+        JSON_MAPPER.writeValue(buffer, data);
+        return read(JSON_MAPPER, buffer.asParser(JSON_MAPPER), clazz);
     }
 
 }
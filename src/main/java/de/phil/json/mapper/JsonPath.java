@@ -0,0 +1,205 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import de.phil.json.typeconverter.TypeConverter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled path to a value in nested maps and lists, e.g. <code>mapOfMaps.map1.b</code> or <code>cars[2].extras[0]</code>.
+ * <p>
+ * Keys are separated by dots, list indexes are written in brackets. Keys containing dots or brackets can be quoted:
+ * <code>['a.b']</code>, where <code>\</code> escapes <code>'</code> and <code>\</code>.
+ * Compiled paths are immutable and cached, so evaluating a path does not parse or allocate anything.
+ */
+public final class JsonPath {
+
+    /**
+     * Maximum number of cached paths. Paths compiled beyond that are not cached.
+     */
+    static final int MAX_CACHE_SIZE = 1024;
+
+    private static final Map<String, JsonPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    /**
+     * Keys of segments, <code>null</code> for list indexes.
+     */
+    private final String[] keys;
+    /**
+     * List indexes of segments, -1 for keys.
+     */
+    private final int[] indexes;
+
+    private JsonPath(String expression, String[] keys, int[] indexes) {
+        this.expression = expression;
+        this.keys = keys;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Compiles a path or gets it from the cache.
+     *
+     * @param expression Path expression.
+     * @return compiled path.
+     * @throws IllegalArgumentException path is invalid.
+     */
+    public static JsonPath compile(@NotNull String expression) throws IllegalArgumentException {
+        final JsonPath path = CACHE.get(expression);
+        if (path != null) {
+            return path;
+        }
+        final JsonPath compiled = parse(expression);
+        if (CACHE.size() < MAX_CACHE_SIZE) {
+            CACHE.putIfAbsent(expression, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Gets the value the path points to.
+     *
+     * @param root Map to start at.
+     * @return value or <code>null</code> if a key is missing, an index is out of range
+     * or a value on the way is neither a map nor a list.
+     */
+    public Object evaluate(Map<String, ?> root) {
+        Object current = root;
+        for (int i = 0; (i < keys.length) && (current != null); i++) {
+            if (keys[i] != null) {
+                current = (current instanceof final Map<?, ?> map) ? map.get(keys[i]) : null;
+            } else {
+                current = ((current instanceof final List<?> list) && (indexes[i] < list.size())) ? list.get(indexes[i]) : null;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the value the path points to, converted into the given class.
+     *
+     * @param root  Map to start at.
+     * @param clazz Class to convert to.
+     * @param <T>   Type of value.
+     * @return converted value or <code>null</code> (see {@link #evaluate(Map)}).
+     */
+    public <T> T evaluate(Map<String, ?> root, Class<T> clazz) {
+        return TypeConverter.convert(evaluate(root), clazz);
+    }
+
+    /**
+     * Gets the number of segments.
+     *
+     * @return number of keys and indexes.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the key of a segment.
+     *
+     * @param segment Index of segment.
+     * @return key or <code>null</code> if the segment is a list index.
+     */
+    public String getKey(int segment) {
+        return keys[segment];
+    }
+
+    /**
+     * Gets the list index of a segment.
+     *
+     * @param segment Index of segment.
+     * @return list index or -1 if the segment is a key.
+     */
+    public int getIndex(int segment) {
+        return indexes[segment];
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof final JsonPath path) && Arrays.equals(keys, path.keys) && Arrays.equals(indexes, path.indexes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(indexes);
+    }
+
+    private static JsonPath parse(String expression) {
+        final List<String> keys = new ArrayList<>();
+        final List<Integer> indexes = new ArrayList<>();
+        int position = 0;
+        while (position < expression.length()) {
+            if (expression.startsWith("['", position)) {
+                final StringBuilder key = new StringBuilder();
+                for (position += 2; (position < expression.length()) && (expression.charAt(position) != '\''); position++) {
+                    if ((expression.charAt(position) == '\\') && (position + 1 < expression.length())) {
+                        position++;
+                    }
+                    key.append(expression.charAt(position));
+                }
+                position = expect(expression, expect(expression, position, '\''), ']');
+                keys.add(key.toString());
+                indexes.add(-1);
+            } else if ((expression.charAt(position) == '[') && !keys.isEmpty()) {
+                final int end = expression.indexOf(']', position);
+                final int index = (end < 0) ? -1 : parseIndex(expression, position + 1, end);
+                if (index < 0) {
+                    throw invalid(expression, position);
+                }
+                keys.add(null);
+                indexes.add(index);
+                position = end + 1;
+            } else {
+                if (!keys.isEmpty()) {
+                    position = expect(expression, position, '.');
+                }
+                int end = position;
+                while ((end < expression.length()) && (".[]'".indexOf(expression.charAt(end)) < 0)) {
+                    end++;
+                }
+                if (end == position) {
+                    throw invalid(expression, position);
+                }
+                keys.add(expression.substring(position, end));
+                indexes.add(-1);
+                position = end;
+            }
+        }
+        if (keys.isEmpty()) {
+            throw invalid(expression, 0);
+        }
+        return new JsonPath(expression, keys.toArray(new String[0]), indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int parseIndex(String expression, int from, int to) {
+        try {
+            return Integer.parseInt(expression, from, to, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int expect(String expression, int position, char c) {
+        if ((position >= expression.length()) || (expression.charAt(position) != c)) {
+            throw invalid(expression, position);
+        }
+        return position + 1;
+    }
+
+    private static IllegalArgumentException invalid(String expression, int position) {
+        return new IllegalArgumentException("path=" + expression + " is invalid at position " + position);
+    }
+}
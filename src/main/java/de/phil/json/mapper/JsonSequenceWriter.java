@@ -0,0 +1,76 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes a sequence of values to a stream, one value after the other.
+ * <p>
+ * Values are serialized directly to the stream, so no string containing all values is built.
+ * Closing the writer flushes it but does not close the underlying stream.
+ */
+public class JsonSequenceWriter implements Closeable, Flushable {
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+    private final String terminator;
+
+    /**
+     * Creates writer.
+     *
+     * @param writer     Writer for single values.
+     * @param generator  Generator to write to.
+     * @param terminator Written after each value (optional).
+     */
+    JsonSequenceWriter(@NotNull ObjectWriter writer, @NotNull JsonGenerator generator, String terminator) {
+        this.writer = writer;
+        this.generator = generator;
+        this.terminator = terminator;
+    }
+
+    /**
+     * Writes a value.
+     *
+     * @param value Value.
+     * @return this writer.
+     */
+    @SneakyThrows(IOException.class)
+    public JsonSequenceWriter write(Object value) {
+        writer.writeValue(generator, value);
+        if (terminator != null) {
+            generator.writeRaw(terminator);
+        }
+        return this;
+    }
+
+    /**
+     * Writes all values.
+     *
+     * @param values Values.
+     * @return this writer.
+     */
+    public JsonSequenceWriter writeAll(@NotNull Iterable<?> values) {
+        values.forEach(this::write);
+        return this;
+    }
+
+    @SneakyThrows(IOException.class)
+    @Override
+    public void flush() {
+        generator.flush();
+    }
+
+    @SneakyThrows(IOException.class)
+    @Override
+    public void close() {
+        generator.close();
+    }
+}
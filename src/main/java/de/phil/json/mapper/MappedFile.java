@@ -0,0 +1,164 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * File mapped into memory.
+ * <p>
+ * A {@link ByteBuffer} can address 2 GB at most, so the file is mapped in segments.
+ * The mapping is released by the garbage collector once the file is no longer referenced.
+ */
+final class MappedFile {
+
+    /**
+     * Default size of a segment.
+     */
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    private final ByteBuffer[] segments;
+    private final int segmentSize;
+    private final long size;
+
+    private MappedFile(ByteBuffer[] segments, int segmentSize, long size) {
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+        this.size = size;
+    }
+
+    /**
+     * Maps file into memory.
+     *
+     * @param path File.
+     * @return Mapped file.
+     * @throws IOException File cannot be mapped.
+     */
+    static MappedFile map(@NotNull Path path) throws IOException {
+        return map(path, SEGMENT_SIZE);
+    }
+
+    /**
+     * Maps file into memory.
+     *
+     * @param path        File.
+     * @param segmentSize Size of segments.
+     * @return Mapped file.
+     * @throws IOException File cannot be mapped.
+     */
+    static MappedFile map(@NotNull Path path, int segmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer[] segments = new ByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+            for (int i = 0; i < segments.length; i++) {
+                final long position = (long) i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+            }
+            return new MappedFile(segments, segmentSize, size);
+        }
+    }
+
+    /**
+     * Gets size of file.
+     *
+     * @return size in bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Gets byte at given position.
+     *
+     * @param position Position in file.
+     * @return byte.
+     */
+    byte get(long position) {
+        return segments[(int) (position / segmentSize)].get((int) (position % segmentSize));
+    }
+
+    /**
+     * Finds the first occurrence of a byte in the given range.
+     *
+     * @param value Byte to find.
+     * @param from  Start position (inclusive).
+     * @param to    End position (exclusive).
+     * @return position of the byte or <code>to</code> if the range does not contain the byte.
+     */
+    long indexOf(byte value, long from, long to) {
+        for (long position = from; position < to; ) {
+            final int segmentOffset = (int) (position % segmentSize);
+            final ByteBuffer segment = segments[(int) (position / segmentSize)];
+            final int end = (int) Math.min(segment.limit(), segmentOffset + (to - position));
+            for (int i = segmentOffset; i < end; i++) {
+                if (segment.get(i) == value) {
+                    return position + (i - segmentOffset);
+                }
+            }
+            position += end - segmentOffset;
+        }
+        return to;
+    }
+
+    /**
+     * Copies bytes starting at given position.
+     *
+     * @param position Position in file.
+     * @param bytes    Array to copy to.
+     * @param offset   Offset in array.
+     * @param length   Number of bytes to copy.
+     */
+    void get(long position, byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            final int segmentOffset = (int) (position % segmentSize);
+            final ByteBuffer segment = segments[(int) (position / segmentSize)];
+            final int n = Math.min(segment.limit() - segmentOffset, length);
+            segment.get(segmentOffset, bytes, offset, n);
+            position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Creates stream reading the whole file.
+     *
+     * @return stream.
+     */
+    InputStream newInputStream() {
+        return newInputStream(0, size);
+    }
+
+    /**
+     * Creates stream reading the given range of the file.
+     *
+     * @param from Start position (inclusive).
+     * @param to   End position (exclusive).
+     * @return stream.
+     */
+    InputStream newInputStream(long from, long to) {
+        final List<InputStream> streams = new ArrayList<>();
+        for (long position = from; position < to; ) {
+            final int offset = (int) (position % segmentSize);
+            final ByteBuffer segment = segments[(int) (position / segmentSize)];
+            final int length = (int) Math.min(segment.limit() - offset, to - position);
+            streams.add(new ByteBufferBackedInputStream(segment.duplicate().position(offset).limit(offset + length)));
+            position += length;
+        }
+        return streams.size() == 1
+                ? streams.get(0)
+                : new SequenceInputStream(Collections.enumeration(streams));
+    }
+}
@@ -0,0 +1,131 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splittable spliterator over the records of a newline-delimited JSON file (NDJSON, JSON Lines).
+ * <p>
+ * Records are found by scanning for line feeds, so a range of the file can be split at the
+ * line following its middle without parsing anything. Each record is parsed on its own,
+ * which allows parallel streams to parse the chunks of a file on all cores. A line must contain exactly one value,
+ * a line <code>null</code> is a <code>null</code>-record.
+ *
+ * @param <T> Type of records.
+ */
+class NdJsonSpliterator<T extends JsonMap> implements Spliterator<T> {
+
+    /**
+     * Ranges smaller than this are not split any further.
+     */
+    static final long MIN_SPLIT_SIZE = 1 << 16;
+
+    private static final byte LINE_FEED = '\n';
+
+    private final ObjectMapper mapper;
+    private final MappedFile file;
+    private final Class<T> clazz;
+    private final long minSplitSize;
+    private final long end;
+    private long position;
+
+    /**
+     * Creates spliterator over the whole file.
+     *
+     * @param mapper Mapper.
+     * @param file   File.
+     * @param clazz  Class of records.
+     */
+    NdJsonSpliterator(@NotNull ObjectMapper mapper, @NotNull MappedFile file, @NotNull Class<T> clazz) {
+        this(mapper, file, clazz, MIN_SPLIT_SIZE, 0, file.size());
+    }
+
+    /**
+     * Creates spliterator over a range of the file. The range must start at the beginning of a line.
+     *
+     * @param mapper       Mapper.
+     * @param file         File.
+     * @param clazz        Class of records.
+     * @param minSplitSize Ranges smaller than this are not split.
+     * @param position     Start position (inclusive).
+     * @param end          End position (exclusive).
+     */
+    NdJsonSpliterator(@NotNull ObjectMapper mapper, @NotNull MappedFile file, @NotNull Class<T> clazz, long minSplitSize, long position, long end) {
+        this.mapper = mapper;
+        this.file = file;
+        this.clazz = clazz;
+        this.minSplitSize = minSplitSize;
+        this.position = position;
+        this.end = end;
+    }
+
+    @SneakyThrows(IOException.class)
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (position < end) {
+            final long lineEnd = file.indexOf(LINE_FEED, position, end);
+            final byte[] line = new byte[(int) (lineEnd - position)];
+            file.get(position, line, 0, line.length);
+            position = Math.min(lineEnd + 1, end);
+            if (!isBlank(line)) {
+                final T record;
+                try (JsonParser parser = mapper.createParser(line)) {
+                    record = JsonMapping.readValue(mapper, parser, clazz);
+                    if (parser.nextToken() != null) {
+                        throw new JsonParseException(parser, "Unexpected content after record");
+                    }
+                }
+                action.accept(record);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(byte[] line) {
+        for (byte b : line) {
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (end - position < minSplitSize) {
+            return null;
+        }
+        final long split = file.indexOf(LINE_FEED, position + (end - position) / 2, end) + 1;
+        if (split >= end) {
+            return null;
+        }
+        final NdJsonSpliterator<T> prefix = new NdJsonSpliterator<>(mapper, file, clazz, minSplitSize, position, split);
+        position = split;
+        return prefix;
+    }
+
+    /**
+     * Estimates the size by the number of remaining bytes.
+     *
+     * @return remaining bytes.
+     */
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | IMMUTABLE;
+    }
+}
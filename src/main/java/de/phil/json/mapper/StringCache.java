@@ -0,0 +1,105 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Bounded cache of canonical strings, so repeated keys and values of parsed documents share one instance.
+ * A cache is passed to the reads that should share strings, e.g. {@link JsonMapping#readJson(String, Class, StringCache)}.
+ * <p>
+ * The cache is a fixed-size table indexed by hash code. A string replaces the cached string with the same slot,
+ * so the cache never grows and needs no eviction. Threads share the table without locking: strings are immutable,
+ * and a lost update only means that an instance is not shared.
+ */
+public final class StringCache {
+
+    /**
+     * Number of slots.
+     */
+    static final int SIZE = 4096;
+
+    private final String[] strings = new String[SIZE];
+    private final boolean keys;
+    private final int maxValueLength;
+
+    /**
+     * Creates cache.
+     *
+     * @param keys           true to canonicalize keys.
+     * @param maxValueLength Maximum length of canonicalized values, 0 to keep values as they are.
+     */
+    public StringCache(boolean keys, int maxValueLength) {
+        this.keys = keys;
+        this.maxValueLength = maxValueLength;
+    }
+
+    /**
+     * Gets the canonical instance of a key.
+     *
+     * @param key Key.
+     * @return cached key equal to <code>key</code> or <code>key</code> itself.
+     */
+    String key(@NotNull String key) {
+        return keys ? canonicalize(key) : key;
+    }
+
+    /**
+     * Checks whether values of given length are canonicalized.
+     *
+     * @param length Length of value.
+     * @return true if {@link #value(char[], int, int)} returns cached strings.
+     */
+    boolean isCached(int length) {
+        return length <= maxValueLength;
+    }
+
+    /**
+     * Gets the canonical instance of a value, creating it only if it is not cached.
+     *
+     * @param chars  Buffer containing the value.
+     * @param offset Offset of value in buffer.
+     * @param length Length of value (see {@link #isCached(int)}).
+     * @return cached value.
+     */
+    String value(char @NotNull [] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int slot = slot(hash);
+        final String cached = strings[slot];
+        if ((cached != null) && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        final String value = new String(chars, offset, length);
+        strings[slot] = value;
+        return value;
+    }
+
+    private String canonicalize(String string) {
+        final int slot = slot(string.hashCode());
+        final String cached = strings[slot];
+        if (string.equals(cached)) {
+            return cached;
+        }
+        strings[slot] = string;
+        return string;
+    }
+
+    private static int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & (SIZE - 1);
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
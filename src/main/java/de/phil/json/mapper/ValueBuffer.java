@@ -0,0 +1,135 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Token buffer used to copy values without writing them to JSON text.
+ * <p>
+ * Scalars are stored as the JSON parser would have returned them after a round-trip through text,
+ * e.g. a <code>long</code> that fits into an <code>int</code> is read back as {@link Integer} and
+ * binary data is read back as Base64-{@link String}. Decimals given as {@link BigDecimal} or as text are kept as
+ * {@link BigDecimal}, so no precision is lost before the reader decides whether it uses big decimals.
+ */
+class ValueBuffer extends TokenBuffer {
+
+    /**
+     * Creates buffer.
+     *
+     * @param codec Codec used to serialize embedded objects and to read the buffer.
+     */
+    ValueBuffer(ObjectCodec codec) {
+        super(codec, false);
+    }
+
+    @Override
+    public void writeNumber(short value) throws IOException {
+        super.writeNumber((int) value);
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+        if (value == (int) value) {
+            super.writeNumber((int) value);
+        } else {
+            super.writeNumber(value);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigInteger value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else if (value.bitLength() < Long.SIZE) {
+            writeNumber(value.longValue());
+        } else {
+            super.writeNumber(value);
+        }
+    }
+
+    @Override
+    public void writeNumber(float value) throws IOException {
+        if (Float.isFinite(value)) {
+            super.writeNumber(Double.parseDouble(Float.toString(value)));
+        } else {
+            writeString(Float.toString(value));
+        }
+    }
+
+    @Override
+    public void writeNumber(double value) throws IOException {
+        if (Double.isFinite(value)) {
+            super.writeNumber(value);
+        } else {
+            writeString(Double.toString(value));
+        }
+    }
+
+    @Override
+    public void writeNumber(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else {
+            writeNumber(value.toString());
+        }
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        if (encodedValue == null) {
+            writeNull();
+        } else if (encodedValue.endsWith("NaN") || encodedValue.endsWith("Infinity")) {
+            writeNumber(Double.parseDouble(encodedValue));
+        } else if (encodedValue.indexOf('.') >= 0 || encodedValue.indexOf('e') >= 0 || encodedValue.indexOf('E') >= 0) {
+            super.writeNumber(new BigDecimal(encodedValue));
+        } else {
+            writeNumber(new BigInteger(encodedValue));
+        }
+    }
+
+    @Override
+    public void writeBinary(Base64Variant variant, byte[] data, int offset, int len) throws IOException {
+        writeString(variant.encode(Arrays.copyOfRange(data, offset, offset + len)));
+    }
+
+    @Override
+    public void writeRawValue(String text) throws IOException {
+        try (JsonParser parser = getCodec().getFactory().createParser(text)) {
+            parser.nextToken();
+            copyCurrentStructure(parser);
+        }
+    }
+
+    @Override
+    public void writeRawValue(String text, int offset, int len) throws IOException {
+        writeRawValue(text.substring(offset, offset + len));
+    }
+
+    @Override
+    public void writeRawValue(char[] text, int offset, int len) throws IOException {
+        writeRawValue(new String(text, offset, len));
+    }
+
+    @Override
+    public void writeObject(Object value) throws IOException {
+        if (value instanceof byte[] data) {
+            writeBinary(data);
+        } else if (value instanceof RawValue rawValue) {
+            final Object raw = rawValue.rawValue();
+            writeRawValue(raw instanceof SerializableString s ? s.getValue() : String.valueOf(raw));
+        } else {
+            super.writeObject(value);
+        }
+    }
+}
@@ -0,0 +1,797 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.typeconverter.TypeConverter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * {@link JsonList} storing the values of each key in a column, for lists of maps with mostly the same keys.
+ * <p>
+ * Columns of {@link Integer}s, {@link Long}s, {@link Double}s and {@link Boolean}s are stored in primitive arrays,
+ * columns of {@link String}s are dictionary-encoded as long as at most half of the rows have distinct strings.
+ * The type of a column is chosen by its first non-<code>null</code> value. A column of {@link Integer}s is widened to
+ * {@link Long}s by the first <code>Long</code> (its ints are read as <code>Long</code>s from then on), otherwise a column
+ * falls back to an <code>Object[]</code> as soon as it gets a value of another type or too many distinct strings.
+ * Bitmaps mark the rows that contain the key and the rows where the value is <code>null</code>.
+ * <p>
+ * The elements are views of the rows and are created on access, so they are equal but not identical to previously gotten
+ * elements. Views stay with their row when rows are inserted or removed before it (finding the row again takes linear time
+ * once), views of removed or replaced rows throw an {@link IllegalStateException}.
+ * Maps returned by {@link #set(int, JsonMap)} and {@link #remove(int)} are copies.
+ */
+public class ColumnarJsonList extends AbstractList<JsonMap> implements JsonList, RandomAccess {
+
+    private Map<String, Column> columns = new LinkedHashMap<>();
+    private int size;
+
+    /**
+     * Ids of the rows, views find their row by its id.
+     */
+    private int[] ids = new int[0];
+    private int nextId;
+
+    /**
+     * Creates empty list.
+     */
+    public ColumnarJsonList() {
+    }
+
+    /**
+     * Creates list containing the given maps.
+     *
+     * @param maps Maps.
+     */
+    public ColumnarJsonList(@NotNull Collection<? extends Map<String, ?>> maps) {
+        maps.forEach(this::addRow);
+    }
+
+    /**
+     * Gets a view of a row. The view follows the row if other rows are inserted or removed.
+     *
+     * @param index Index of row.
+     * @return View of the row.
+     */
+    @Override
+    public JsonMap get(int index) {
+        Objects.checkIndex(index, size);
+        return new Row(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, JsonMap map) {
+        Objects.checkIndex(index, size + 1);
+        if (index < size) {
+            columns.values().forEach(column -> column.move(index, index + 1, size - index));
+        }
+        ensureIdCapacity(size + 1);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = nextId++;
+        size++;
+        modCount++;
+        setRow(index, map);
+    }
+
+    /**
+     * Adds a map as last row.
+     *
+     * @param map Map.
+     */
+    public void addRow(@NotNull Map<String, ?> map) {
+        ensureIdCapacity(size + 1);
+        ids[size] = nextId++;
+        size++;
+        modCount++;
+        setRow(size - 1, map);
+    }
+
+    @Override
+    public JsonMap set(int index, JsonMap map) {
+        Objects.checkIndex(index, size);
+        final JsonMap previous = copy(index);
+        columns.values().forEach(column -> column.clear(index));
+        // views of the replaced map are detached
+        ids[index] = nextId++;
+        setRow(index, map);
+        return previous;
+    }
+
+    @Override
+    public JsonMap remove(int index) {
+        Objects.checkIndex(index, size);
+        final JsonMap previous = copy(index);
+        columns.values().forEach(column -> {
+            column.move(index + 1, index, size - index - 1);
+            column.clear(size - 1);
+        });
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        columns = new LinkedHashMap<>();
+        ids = new int[0];
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public <T> List<JsonMap> findAll(String key, T value) {
+        final Column column = columns.get(key);
+        return IntStream.range(0, size)
+                        .filter(row -> Objects.equals((column == null) ? null : column.get(row), value))
+                        .mapToObj(row -> (JsonMap) new Row(row))
+                        .toList();
+    }
+
+    @Override
+    public IntStream mapToInt(String key, int defaultValue) {
+        final Column column = columns.get(key);
+        return (column == null)
+                ? IntStream.range(0, size).map(row -> defaultValue)
+                : IntStream.range(0, size).map(row -> column.getInt(row, defaultValue));
+    }
+
+    @Override
+    public LongStream mapToLong(String key, long defaultValue) {
+        final Column column = columns.get(key);
+        return (column == null)
+                ? IntStream.range(0, size).mapToLong(row -> defaultValue)
+                : IntStream.range(0, size).mapToLong(row -> column.getLong(row, defaultValue));
+    }
+
+    @Override
+    public DoubleStream mapToDouble(String key, double defaultValue) {
+        final Column column = columns.get(key);
+        return (column == null)
+                ? IntStream.range(0, size).mapToDouble(row -> defaultValue)
+                : IntStream.range(0, size).mapToDouble(row -> column.getDouble(row, defaultValue));
+    }
+
+    private void ensureIdCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, Column.grow(ids.length, capacity - 1));
+        }
+    }
+
+    private int indexOfId(int id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        throw new IllegalStateException("Row has been removed from the list");
+    }
+
+    private void setRow(int row, Map<String, ?> map) {
+        map.forEach((key, value) -> setValue(row, key, value));
+    }
+
+    private JsonMap copy(int row) {
+        final JsonMapImpl copy = new JsonMapImpl();
+        columns.forEach((key, column) -> {
+            if (column.contains(row)) {
+                copy.put(key, column.get(row));
+            }
+        });
+        return copy;
+    }
+
+    private Object setValue(int row, String key, Object value) {
+        Column column = columns.get(key);
+        if (column == null) {
+            column = Column.of(value);
+            columns.put(key, column);
+        }
+        final Object previous = column.get(row);
+        if (!column.set(row, value)) {
+            column = column.widen(value, size);
+            columns.put(key, column);
+            column.set(row, value);
+        }
+        return previous;
+    }
+
+    private Object removeValue(int row, Object key) {
+        final Column column = columns.get(key);
+        if (column == null) {
+            return null;
+        }
+        final Object previous = column.get(row);
+        column.clear(row);
+        return previous;
+    }
+
+    /**
+     * View of a row.
+     */
+    private final class Row extends AbstractMap<String, Object> implements JsonMap {
+        private final int id;
+        private int row;
+
+        private Row(int row) {
+            this.id = ids[row];
+            this.row = row;
+        }
+
+        /**
+         * Finds the current index of the row after rows have been inserted or removed before it.
+         */
+        private int row() {
+            if ((row >= size) || (ids[row] != id)) {
+                row = indexOfId(id);
+            }
+            return row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            final Column column = columns.get(key);
+            return (column == null) ? null : column.get(row());
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            final Column column = columns.get(key);
+            return (column != null) && column.contains(row());
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return setValue(row(), key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return removeValue(row(), key);
+        }
+
+        @Override
+        public void clear() {
+            columns.values().forEach(column -> column.clear(row()));
+        }
+
+        @Override
+        public int getInt(String key, int defaultValue) {
+            final Column column = columns.get(key);
+            return (column == null) ? defaultValue : column.getInt(row(), defaultValue);
+        }
+
+        @Override
+        public long getLong(String key, long defaultValue) {
+            final Column column = columns.get(key);
+            return (column == null) ? defaultValue : column.getLong(row(), defaultValue);
+        }
+
+        @Override
+        public double getDouble(String key, double defaultValue) {
+            final Column column = columns.get(key);
+            return (column == null) ? defaultValue : column.getDouble(row(), defaultValue);
+        }
+
+        @NotNull
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<Entry<String, Column>> iterator = columns.entrySet().iterator();
+                    return new Iterator<>() {
+                        private Entry<String, Column> next = advance();
+
+                        private Entry<String, Column> advance() {
+                            while (iterator.hasNext()) {
+                                final Entry<String, Column> entry = iterator.next();
+                                if (entry.getValue().contains(row())) {
+                                    return entry;
+                                }
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            final String key = next.getKey();
+                            final Object value = next.getValue().get(row());
+                            next = advance();
+                            return new SimpleEntry<>(key, value) {
+                                @Override
+                                public Object setValue(Object value) {
+                                    super.setValue(value);
+                                    return put(key, value);
+                                }
+                            };
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Column column : columns.values()) {
+                        if (column.contains(row())) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Values of a key.
+     */
+    private abstract static class Column {
+        /**
+         * Rows containing the key.
+         */
+        final BitSet present;
+        /**
+         * Rows containing the key with a <code>null</code> value.
+         */
+        final BitSet nulls;
+
+        Column() {
+            this(new BitSet(), new BitSet());
+        }
+
+        Column(BitSet present, BitSet nulls) {
+            this.present = present;
+            this.nulls = nulls;
+        }
+
+        /**
+         * Creates a column fitting the value.
+         */
+        static Column of(Object value) {
+            if (value == null) {
+                return new NullColumn();
+            }
+            if (value instanceof Integer) {
+                return new IntColumn();
+            }
+            if (value instanceof Long) {
+                return new LongColumn();
+            }
+            if (value instanceof Double) {
+                return new DoubleColumn();
+            }
+            if (value instanceof Boolean) {
+                return new BooleanColumn();
+            }
+            if (value instanceof String) {
+                return new StringColumn();
+            }
+            return new ObjectColumn();
+        }
+
+        boolean contains(int row) {
+            return present.get(row);
+        }
+
+        Object get(int row) {
+            return (!present.get(row) || nulls.get(row)) ? null : value(row);
+        }
+
+        /**
+         * Sets the value of a row.
+         *
+         * @return false if the value doesn't fit the column.
+         */
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+            } else if (store(row, value)) {
+                nulls.clear(row);
+            } else {
+                return false;
+            }
+            present.set(row);
+            return true;
+        }
+
+        void clear(int row) {
+            present.clear(row);
+            nulls.clear(row);
+        }
+
+        /**
+         * Creates a column containing the values of this column that also fits the given value.
+         *
+         * @param value Value that doesn't fit this column.
+         * @param size  Number of rows.
+         */
+        Column widen(Object value, int size) {
+            return new ObjectColumn(this, size);
+        }
+
+        /**
+         * Moves the values of rows.
+         */
+        void move(int from, int to, int count) {
+            move(present, from, to, count);
+            move(nulls, from, to, count);
+            moveValues(from, to, count);
+        }
+
+        int getInt(int row, int defaultValue) {
+            return TypeConverter.toInt(get(row), defaultValue);
+        }
+
+        long getLong(int row, long defaultValue) {
+            return TypeConverter.toLong(get(row), defaultValue);
+        }
+
+        double getDouble(int row, double defaultValue) {
+            return TypeConverter.toDouble(get(row), defaultValue);
+        }
+
+        /**
+         * Checks whether the row has a non-<code>null</code> value.
+         */
+        boolean hasValue(int row) {
+            return present.get(row) && !nulls.get(row);
+        }
+
+        /**
+         * Gets the non-<code>null</code> value of a row.
+         */
+        abstract Object value(int row);
+
+        /**
+         * Stores a non-<code>null</code> value.
+         *
+         * @return false if the value doesn't fit the column.
+         */
+        abstract boolean store(int row, Object value);
+
+        abstract void moveValues(int from, int to, int count);
+
+        static void move(BitSet bits, int from, int to, int count) {
+            final BitSet moved = bits.get(from, from + count);
+            bits.clear(Math.min(from, to), Math.max(from, to) + count);
+            for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+                bits.set(to + i);
+            }
+        }
+
+        static int grow(int length, int row) {
+            return Math.max(row + 1, length + (length >> 1) + 8);
+        }
+    }
+
+    /**
+     * Column without non-<code>null</code> values yet, replaced by a column of the type of the first value.
+     */
+    private static final class NullColumn extends Column {
+
+        @Override
+        Object value(int row) {
+            throw new IllegalStateException("Column contains only null values");
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            return false;
+        }
+
+        @Override
+        Column widen(Object value, int size) {
+            final Column column = Column.of(value);
+            column.present.or(present);
+            column.nulls.or(nulls);
+            return column;
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            // no values
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        private int[] values = new int[0];
+
+        @Override
+        Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            if (!(value instanceof final Integer i)) {
+                return false;
+            }
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = i;
+            return true;
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            if (values.length < Math.max(from, to) + count) {
+                values = Arrays.copyOf(values, Math.max(from, to) + count);
+            }
+            System.arraycopy(values, from, values, to, count);
+        }
+
+        @Override
+        Column widen(Object value, int size) {
+            return (value instanceof Long) ? new LongColumn(this) : super.widen(value, size);
+        }
+
+        @Override
+        int getInt(int row, int defaultValue) {
+            return hasValue(row) ? values[row] : defaultValue;
+        }
+
+        @Override
+        long getLong(int row, long defaultValue) {
+            return hasValue(row) ? values[row] : defaultValue;
+        }
+
+        @Override
+        double getDouble(int row, double defaultValue) {
+            return hasValue(row) ? values[row] : defaultValue;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        private long[] values;
+
+        LongColumn() {
+            values = new long[0];
+        }
+
+        /**
+         * Copies a column of ints.
+         */
+        LongColumn(IntColumn column) {
+            super(column.present, column.nulls);
+            values = new long[column.values.length];
+            for (int row = 0; row < values.length; row++) {
+                values[row] = column.values[row];
+            }
+        }
+
+        @Override
+        Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            if (!(value instanceof final Long l)) {
+                return false;
+            }
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = l;
+            return true;
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            if (values.length < Math.max(from, to) + count) {
+                values = Arrays.copyOf(values, Math.max(from, to) + count);
+            }
+            System.arraycopy(values, from, values, to, count);
+        }
+
+        @Override
+        long getLong(int row, long defaultValue) {
+            return hasValue(row) ? values[row] : defaultValue;
+        }
+
+        @Override
+        double getDouble(int row, double defaultValue) {
+            return hasValue(row) ? values[row] : defaultValue;
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private double[] values = new double[0];
+
+        @Override
+        Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            if (!(value instanceof final Double d)) {
+                return false;
+            }
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = d;
+            return true;
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            if (values.length < Math.max(from, to) + count) {
+                values = Arrays.copyOf(values, Math.max(from, to) + count);
+            }
+            System.arraycopy(values, from, values, to, count);
+        }
+
+        @Override
+        double getDouble(int row, double defaultValue) {
+            return hasValue(row) ? values[row] : defaultValue;
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+        private final BitSet values = new BitSet();
+
+        @Override
+        Object value(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            if (!(value instanceof final Boolean b)) {
+                return false;
+            }
+            values.set(row, b);
+            return true;
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            move(values, from, to, count);
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings.
+     */
+    private static final class StringColumn extends Column {
+        /**
+         * Size of the dictionary from which on the number of distinct strings is compared to the number of rows.
+         */
+        private static final int MIN_CHECKED_DICTIONARY_SIZE = 256;
+
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private int[] values = new int[0];
+
+        @Override
+        Object value(int row) {
+            return dictionary.get(values[row]);
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            if (!(value instanceof final String s)) {
+                return false;
+            }
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            Integer code = codes.get(s);
+            if (code == null) {
+                if (hasTooManyStrings()) {
+                    return false;
+                }
+                code = dictionary.size();
+                dictionary.add(s);
+                codes.put(s, code);
+            }
+            values[row] = code;
+            return true;
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            if (values.length < Math.max(from, to) + count) {
+                values = Arrays.copyOf(values, Math.max(from, to) + count);
+            }
+            System.arraycopy(values, from, values, to, count);
+        }
+
+        /**
+         * Checks whether more than half of the rows have distinct strings, so references are smaller than the dictionary.
+         * Only checked when the dictionary has doubled, as counting the rows takes linear time.
+         */
+        private boolean hasTooManyStrings() {
+            final int distinct = dictionary.size();
+            return (distinct >= MIN_CHECKED_DICTIONARY_SIZE) && (Integer.bitCount(distinct) == 1)
+                    && (distinct > present.cardinality() / 2);
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        private Object[] values;
+
+        ObjectColumn() {
+            values = new Object[0];
+        }
+
+        /**
+         * Copies a column.
+         */
+        ObjectColumn(Column column, int size) {
+            super(column.present, column.nulls);
+            values = new Object[size];
+            for (int row = column.present.nextSetBit(0); (row >= 0) && (row < size); row = column.present.nextSetBit(row + 1)) {
+                values[row] = column.get(row);
+            }
+        }
+
+        @Override
+        Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean store(int row, Object value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        void clear(int row) {
+            super.clear(row);
+            if (row < values.length) {
+                values[row] = null;
+            }
+        }
+
+        @Override
+        void moveValues(int from, int to, int count) {
+            if (values.length < Math.max(from, to) + count) {
+                values = Arrays.copyOf(values, Math.max(from, to) + count);
+            }
+            System.arraycopy(values, from, values, to, count);
+        }
+    }
+}
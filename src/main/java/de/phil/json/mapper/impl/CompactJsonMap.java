@@ -0,0 +1,407 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compact {@link JsonMap} for many maps with the same keys, e.g. the records of a large list.
+ * <p>
+ * The keys are stored in a {@link Shape} that is shared by all maps with the same keys in the same order,
+ * the values are stored in a flat array. Putting a new key moves the map to the shape with the additional key,
+ * wide maps own a shape that grows in place.
+ * Keys keep their insertion order. Like {@link JsonMapImpl} the map can be read directly by
+ * {@link de.phil.json.mapper.JsonMapping} and optimized.
+ */
+public class CompactJsonMap extends AbstractMap<String, Object> implements JsonMap, IndexedMap {
+
+    private Shape shape = Shape.EMPTY;
+    private Object[] values = Shape.NO_VALUES;
+
+    /**
+     * Number of added and removed keys, to detect changes while iterating (shapes that are not shared change in place).
+     */
+    private int modCount;
+
+    /**
+     * Class that this map is optimized for.
+     */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends Map> optimizedForClass;
+
+    /**
+     * Class that this map is lazily optimized for.
+     */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends Map> lazilyOptimizedForClass;
+
+    /**
+     * Lists indexing this map (see {@link JsonListImpl#indexBy(String)}).
+     */
+    private IndexingLists indexingLists;
+
+    /**
+     * Whether this map is read-only (see {@link #freeze(Class)}).
+     */
+    private boolean frozen;
+
+    /**
+     * Fingerprint of the frozen map, 0 if not computed yet.
+     */
+    private volatile long fingerprint;
+
+    /**
+     * Creates empty map.
+     */
+    public CompactJsonMap() {
+    }
+
+    /**
+     * Creates new map from given map.
+     *
+     * @param values Map.
+     */
+    public CompactJsonMap(@NotNull Map<String, ?> values) {
+        putAll(values);
+        optimize(getClass());
+    }
+
+    @Override
+    public int size() {
+        return shape.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return shape.slot(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        final int slot = shape.slot(key);
+        return (slot >= 0) ? values[slot] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        checkNotFrozen();
+        final int slot = shape.slot(key);
+        final Object previous;
+        if (slot >= 0) {
+            previous = values[slot];
+            values[slot] = value;
+        } else {
+            previous = null;
+            shape = shape.with(key);
+            if (values.length < shape.size()) {
+                values = Arrays.copyOf(values, Math.max(4, values.length * 2));
+            }
+            values[shape.size() - 1] = value;
+            modCount++;
+        }
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        checkNotFrozen();
+        final int slot = shape.slot(key);
+        if (slot < 0) {
+            return null;
+        }
+        final Object previous = values[slot];
+        final int size = shape.size();
+        shape = shape.without(slot);
+        System.arraycopy(values, slot + 1, values, slot, size - slot - 1);
+        values[size - 1] = null;
+        modCount++;
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        checkNotFrozen();
+        final Shape keys = shape;
+        shape = Shape.EMPTY;
+        values = Shape.NO_VALUES;
+        modCount++;
+        for (int i = 0; i < keys.size(); i++) {
+            valueChanged(keys.key(i));
+        }
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int expectedModCount = modCount;
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < shape.size();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (expectedModCount != modCount) {
+                            throw new ConcurrentModificationException();
+                        }
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        final int slot = next++;
+                        return new SimpleEntry<>(shape.key(slot), values[slot]) {
+                            @Override
+                            public Object setValue(Object value) {
+                                super.setValue(value);
+                                return put(getKey(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if ((next == 0) || (expectedModCount != modCount)) {
+                            throw new IllegalStateException();
+                        }
+                        CompactJsonMap.this.remove(shape.key(--next));
+                        expectedModCount = modCount;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return shape.size();
+            }
+        };
+    }
+
+    @Override
+    public void setOptimizedFor(Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            this.optimizedForClass = clazz;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean isOptimizedFor(Class<? extends Map> clazz) {
+        return clazz == optimizedForClass;
+    }
+
+    @Override
+    public void setLazilyOptimizedFor(Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            this.lazilyOptimizedForClass = clazz;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean isLazilyOptimizedFor(Class<? extends Map> clazz) {
+        return clazz == lazilyOptimizedForClass;
+    }
+
+    @Override
+    public void freeze(@NotNull Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            optimize(clazz);
+            for (int i = 0; i < shape.size(); i++) {
+                values[i] = FrozenJsonList.freeze(values[i], clazz);
+            }
+            frozen = true;
+        }
+    }
+
+    @Override
+    public long fingerprint() {
+        if (!frozen) {
+            return JsonFingerprint.ofEntries(this);
+        }
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofEntries(this);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        return frozen;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public void addIndexingList(JsonListImpl list) {
+        if (!frozen) {
+            // frozen maps don't change
+            indexingLists = IndexingLists.add(indexingLists, list);
+        }
+    }
+
+    @Override
+    public void removeIndexingList(JsonListImpl list) {
+        indexingLists = IndexingLists.remove(indexingLists, list);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " is frozen");
+        }
+    }
+
+    /**
+     * Called after the value under the given key may have changed.
+     *
+     * @param key Key of changed value.
+     */
+    protected void valueChanged(Object key) {
+        indexingLists = IndexingLists.valueChanged(indexingLists, key);
+    }
+
+    /**
+     * Keys of maps and their slots in the value arrays.
+     * <p>
+     * Shared shapes are immutable and know the shapes with one additional key. To keep the shared shapes bounded,
+     * maps with more than {@link #MAX_SHARED_KEYS} keys, with keys beyond {@link #MAX_TRANSITIONS} transitions
+     * or created after {@link #MAX_SHARED_SHAPES} shared shapes exist get a shape of their own, which is changed in place.
+     */
+    private static final class Shape {
+        static final Object[] NO_VALUES = new Object[0];
+
+        /**
+         * Maximum number of keys of shared shapes.
+         */
+        static final int MAX_SHARED_KEYS = 64;
+        /**
+         * Maximum number of shared shapes with one additional key, to limit the shapes created for maps with generated keys.
+         */
+        static final int MAX_TRANSITIONS = 64;
+        /**
+         * Maximum number of shared shapes of all maps.
+         */
+        static final int MAX_SHARED_SHAPES = 4096;
+        private static final AtomicInteger SHARED_SHAPES = new AtomicInteger();
+
+        static final Shape EMPTY = new Shape(new String[0], true);
+
+        private String[] keys;
+        private int size;
+        private final Map<String, Integer> slots;
+        /**
+         * Shapes with one additional key, <code>null</code> if the shape is not shared.
+         */
+        private final Map<String, Shape> transitions;
+
+        private Shape(String[] keys, boolean shared) {
+            this.keys = keys;
+            this.size = keys.length;
+            this.slots = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                slots.put(keys[i], i);
+            }
+            this.transitions = shared ? new ConcurrentHashMap<>() : null;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String key(int slot) {
+            return keys[slot];
+        }
+
+        int slot(Object key) {
+            final Integer slot = slots.get(key);
+            return (slot == null) ? -1 : slot;
+        }
+
+        /**
+         * Gets the shape with an additional key.
+         *
+         * @param key New key.
+         * @return shared shape or this shape, if it is not shared.
+         */
+        Shape with(String key) {
+            if (transitions == null) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, Math.max(4, size * 2));
+                }
+                keys[size] = key;
+                slots.put(key, size++);
+                return this;
+            }
+            final Shape shape = transitions.get(key);
+            if (shape != null) {
+                return shape;
+            }
+            final String[] newKeys = Arrays.copyOf(keys, size + 1);
+            newKeys[size] = key;
+            if ((newKeys.length > MAX_SHARED_KEYS) || (transitions.size() >= MAX_TRANSITIONS)) {
+                return new Shape(newKeys, false);
+            }
+            if (SHARED_SHAPES.incrementAndGet() > MAX_SHARED_SHAPES) {
+                SHARED_SHAPES.decrementAndGet();
+                return new Shape(newKeys, false);
+            }
+            final Shape newShape = new Shape(newKeys, true);
+            final Shape existing = transitions.putIfAbsent(key, newShape);
+            if (existing != null) {
+                SHARED_SHAPES.decrementAndGet();
+                return existing;
+            }
+            return newShape;
+        }
+
+        /**
+         * Gets the shape without the key in the given slot. The slots of the following keys move down by one.
+         *
+         * @param slot Slot of removed key.
+         * @return shared shape or this shape, if it is not shared.
+         */
+        Shape without(int slot) {
+            if (transitions == null) {
+                slots.remove(keys[slot]);
+                System.arraycopy(keys, slot + 1, keys, slot, size - slot - 1);
+                keys[--size] = null;
+                for (int i = slot; i < size; i++) {
+                    slots.put(keys[i], i);
+                }
+                return this;
+            }
+            Shape shape = EMPTY;
+            for (int i = 0; i < size; i++) {
+                if (i != slot) {
+                    shape = shape.with(keys[i]);
+                }
+            }
+            return shape;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@link JsonList} of frozen maps (see {@link JsonMap#freeze(Class)}).
+ */
+final class FrozenJsonList extends AbstractList<JsonMap> implements JsonList, RandomAccess {
+
+    private final JsonMap[] maps;
+
+    /**
+     * Fingerprint of this list, 0 if not computed yet.
+     */
+    private volatile long fingerprint;
+
+    private FrozenJsonList(JsonMap[] maps) {
+        this.maps = maps;
+    }
+
+    @Override
+    public JsonMap get(int index) {
+        return maps[index];
+    }
+
+    @Override
+    public int size() {
+        return maps.length;
+    }
+
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofElements(this);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        return true;
+    }
+
+    /**
+     * Freezes a value of a map: maps are frozen, lists and other maps are replaced by read-only copies.
+     *
+     * @param value Value.
+     * @param clazz Class the maps are optimized for.
+     * @return frozen value.
+     */
+    static Object freeze(Object value, @NotNull Class<? extends JsonMap> clazz) {
+        if (value instanceof final JsonMap map) {
+            map.freeze(clazz);
+            return map;
+        }
+        if (value instanceof final JsonList list) {
+            return new FrozenJsonList(list.stream().map(map -> (JsonMap) freeze(map, clazz)).toArray(JsonMap[]::new));
+        }
+        if (value instanceof final List<?> list) {
+            return Collections.unmodifiableList(Arrays.asList(list.stream().map(element -> freeze(element, clazz)).toArray()));
+        }
+        if (value instanceof final Map<?, ?> map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, element) -> copy.put(key, freeze(element, clazz)));
+            return Collections.unmodifiableMap(copy);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,24 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+/**
+ * Map reporting changed values to the {@link JsonListImpl}s indexing it (see {@link JsonListImpl#indexBy(String)}).
+ * Implementations keep the lists in {@link IndexingLists}, so a map does not keep a list alive.
+ */
+interface IndexedMap {
+
+    /**
+     * Adds a list to report changes to. Internal, called by {@link JsonListImpl}.
+     *
+     * @param list List indexing this map.
+     */
+    void addIndexingList(JsonListImpl list);
+
+    /**
+     * Removes a list to report changes to. Internal, called by {@link JsonListImpl}.
+     *
+     * @param list List no longer indexing this map.
+     */
+    void removeIndexingList(JsonListImpl list);
+}
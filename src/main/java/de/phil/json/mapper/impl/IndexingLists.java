@@ -0,0 +1,74 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Lists indexing an {@link IndexedMap}, referenced weakly. Lists that have been garbage collected are dropped
+ * whenever the lists are added to or notified.
+ * <p>
+ * Maps hold <code>null</code> as long as no list indexes them, so the methods take and return the (possibly
+ * <code>null</code>) instance to store.
+ */
+final class IndexingLists {
+
+    private final List<WeakReference<JsonListImpl>> lists = new ArrayList<>(1);
+
+    private IndexingLists() {
+    }
+
+    /**
+     * Adds a list.
+     *
+     * @param lists Lists of a map or <code>null</code>.
+     * @param list  List indexing the map.
+     * @return Lists to store in the map.
+     */
+    static IndexingLists add(IndexingLists lists, JsonListImpl list) {
+        final IndexingLists result = (lists == null) ? new IndexingLists() : lists;
+        result.lists.removeIf(ref -> ref.get() == null);
+        result.lists.add(new WeakReference<>(list));
+        return result;
+    }
+
+    /**
+     * Removes a list.
+     *
+     * @param lists Lists of a map or <code>null</code>.
+     * @param list  List no longer indexing the map.
+     * @return Lists to store in the map, <code>null</code> if none are left.
+     */
+    static IndexingLists remove(IndexingLists lists, JsonListImpl list) {
+        if (lists == null) {
+            return null;
+        }
+        lists.lists.removeIf(ref -> (ref.get() == null) || (ref.get() == list));
+        return lists.lists.isEmpty() ? null : lists;
+    }
+
+    /**
+     * Reports a changed value to the lists.
+     *
+     * @param lists Lists of a map or <code>null</code>.
+     * @param key   Key of changed value.
+     * @return Lists to store in the map, <code>null</code> if none are left.
+     */
+    static IndexingLists valueChanged(IndexingLists lists, Object key) {
+        if (lists == null) {
+            return null;
+        }
+        for (Iterator<WeakReference<JsonListImpl>> it = lists.lists.iterator(); it.hasNext(); ) {
+            final JsonListImpl list = it.next().get();
+            if (list == null) {
+                it.remove();
+            } else {
+                list.valueChanged(key);
+            }
+        }
+        return lists.lists.isEmpty() ? null : lists;
+    }
+}
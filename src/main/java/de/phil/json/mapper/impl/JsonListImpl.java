@@ -6,9 +6,120 @@ import de.phil.json.mapper.JsonList;
 import de.phil.json.mapper.JsonMap;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Default-Implementation.
+ * <p>
+ * Indexes (see {@link #indexBy(String)}) are built on the first lookup and rebuilt after the list has been modified
+ * or an indexed key of a map in the list has been changed by one of its <code>Map</code>-methods
+ * ({@link JsonMapImpl}, {@link CompactJsonMap} and {@link SortedJsonMap} report changes). The maps reference the list
+ * weakly, an indexed list that is no longer used can be garbage collected even if its maps are still in use.
+ * Changes through views of the maps (e.g. <code>entrySet()</code>) and through <code>subList(...).set(...)</code>
+ * are not noticed. Like the list itself, indexes are not thread-safe.
  */
 public class JsonListImpl extends ArrayList<JsonMap> implements JsonList {
+
+    /**
+     * Indexes by key, mapping values to the maps containing them. <code>null</code> if an index must be rebuilt.
+     */
+    private transient Map<String, Map<Object, List<JsonMap>>> indexes;
+
+    /**
+     * Maps notifying this list about changed values.
+     */
+    private transient Set<IndexedMap> indexedMaps;
+
+    /**
+     * <code>modCount</code> at the time the indexes were validated.
+     */
+    private transient int indexedModCount;
+
+    @Override
+    public JsonList indexBy(String key) {
+        if (indexes == null) {
+            indexes = new HashMap<>();
+            indexedMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+            invalidateIndexes();
+        }
+        indexes.putIfAbsent(key, null);
+        return this;
+    }
+
+    @Override
+    public <T> List<JsonMap> findAll(String key, T value) {
+        if ((indexes == null) || !indexes.containsKey(key)) {
+            return JsonList.super.findAll(key, value);
+        }
+        if (modCount != indexedModCount) {
+            invalidateIndexes();
+        }
+        Map<Object, List<JsonMap>> index = indexes.get(key);
+        if (index == null) {
+            index = buildIndex(key);
+            indexes.put(key, index);
+        }
+        return index.getOrDefault(value, List.of());
+    }
+
+    @Override
+    public JsonMap set(int index, JsonMap element) {
+        final JsonMap previous = super.set(index, element);
+        if (indexes != null) {
+            invalidateIndexes();
+        }
+        return previous;
+    }
+
+    @Override
+    public JsonListImpl clone() {
+        final JsonListImpl clone = (JsonListImpl) super.clone();
+        clone.indexes = null;
+        clone.indexedMaps = null;
+        if (indexes != null) {
+            indexes.keySet().forEach(clone::indexBy);
+        }
+        return clone;
+    }
+
+    /**
+     * Called by maps in this list if the value under the given key has changed.
+     *
+     * @param key Key of changed value.
+     */
+    void valueChanged(Object key) {
+        if ((indexes != null) && (indexes.get(key) != null)) {
+            indexes.put((String) key, null);
+        }
+    }
+
+    private void invalidateIndexes() {
+        indexes.replaceAll((key, index) -> null);
+        indexedModCount = modCount;
+        final Set<IndexedMap> maps = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (JsonMap jsonMap : this) {
+            if ((jsonMap instanceof final IndexedMap indexedMap) && maps.add(indexedMap) && !indexedMaps.remove(indexedMap)) {
+                indexedMap.addIndexingList(this);
+            }
+        }
+        // maps removed from this list
+        indexedMaps.forEach(map -> map.removeIndexingList(this));
+        indexedMaps = maps;
+    }
+
+    private Map<Object, List<JsonMap>> buildIndex(String key) {
+        final Map<Object, List<JsonMap>> index = new HashMap<>();
+        for (JsonMap jsonMap : this) {
+            if (jsonMap != null) {
+                index.computeIfAbsent(jsonMap.get(key), value -> new ArrayList<>(1)).add(jsonMap);
+            }
+        }
+        index.replaceAll((value, maps) -> Collections.unmodifiableList(maps));
+        return index;
+    }
 }
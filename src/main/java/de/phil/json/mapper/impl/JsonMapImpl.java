@@ -2,18 +2,29 @@
 
 package de.phil.json.mapper.impl;
 
+import de.phil.json.mapper.JsonFingerprint;
 import de.phil.json.mapper.JsonMap;
 import de.phil.json.mapper.JsonMapping;
 import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.NotNull;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Default-Implementation.
  */
 @NoArgsConstructor
-public class JsonMapImpl extends HashMap<String, Object> implements JsonMap {
+public class JsonMapImpl extends HashMap<String, Object> implements JsonMap, IndexedMap {
 
     /**
      * Class that this map is optimized for.
@@ -21,14 +32,34 @@ public class JsonMapImpl extends HashMap<String, Object> implements JsonMap {
     @SuppressWarnings("rawtypes")
     private Class<? extends Map> optimizedForClass;
 
+    /**
+     * Class that this map is lazily optimized for.
+     */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends Map> lazilyOptimizedForClass;
+
+    /**
+     * Lists indexing this map (see {@link JsonListImpl#indexBy(String)}).
+     */
+    private transient IndexingLists indexingLists;
+
+    /**
+     * Whether this map is read-only (see {@link #freeze(Class)}).
+     */
+    private boolean frozen;
+
+    /**
+     * Fingerprint of the frozen map, 0 if not computed yet.
+     */
+    private transient volatile long fingerprint;
+
     /**
      * Creates new map from JSON-String.
      *
      * @param json JSON.
      */
-    @SuppressWarnings("unchecked")
     public JsonMapImpl(String json) {
-        this(JsonMapping.readJson(json, Map.class));
+        this(JsonMapping.readJson(json, JsonMapImpl.class));
     }
 
     /**
@@ -43,7 +74,9 @@ public class JsonMapImpl extends HashMap<String, Object> implements JsonMap {
 
     @Override
     public void setOptimizedFor(Class<? extends JsonMap> clazz) {
-        this.optimizedForClass = clazz;
+        if (!frozen) {
+            this.optimizedForClass = clazz;
+        }
     }
 
     @SuppressWarnings("rawtypes")
@@ -52,4 +85,237 @@ public class JsonMapImpl extends HashMap<String, Object> implements JsonMap {
         return clazz == optimizedForClass;
     }
 
+    @Override
+    public void setLazilyOptimizedFor(Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            this.lazilyOptimizedForClass = clazz;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean isLazilyOptimizedFor(Class<? extends Map> clazz) {
+        return clazz == lazilyOptimizedForClass;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        checkNotFrozen();
+        final Object previous = super.put(key, value);
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+        checkNotFrozen();
+        super.putAll(m);
+        m.keySet().forEach(this::valueChanged);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        checkNotFrozen();
+        final Object previous = super.remove(key);
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        checkNotFrozen();
+        final boolean removed = super.remove(key, value);
+        valueChanged(key);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        checkNotFrozen();
+        final List<String> keys = new ArrayList<>(keySet());
+        super.clear();
+        keys.forEach(this::valueChanged);
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        checkNotFrozen();
+        final Object previous = super.putIfAbsent(key, value);
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        checkNotFrozen();
+        final boolean replaced = super.replace(key, oldValue, newValue);
+        valueChanged(key);
+        return replaced;
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        checkNotFrozen();
+        final Object previous = super.replace(key, value);
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        checkNotFrozen();
+        final Object value = super.computeIfAbsent(key, mappingFunction);
+        valueChanged(key);
+        return value;
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        checkNotFrozen();
+        final Object value = super.computeIfPresent(key, remappingFunction);
+        valueChanged(key);
+        return value;
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        checkNotFrozen();
+        final Object value = super.compute(key, remappingFunction);
+        valueChanged(key);
+        return value;
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        checkNotFrozen();
+        final Object merged = super.merge(key, value, remappingFunction);
+        valueChanged(key);
+        return merged;
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        checkNotFrozen();
+        super.replaceAll(function);
+        keySet().forEach(this::valueChanged);
+    }
+
+    @Override
+    public JsonMapImpl clone() {
+        final JsonMapImpl clone = (JsonMapImpl) super.clone();
+        clone.indexingLists = null;
+        clone.frozen = false;
+        clone.fingerprint = 0;
+        return clone;
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (!frozen) {
+            return super.entrySet();
+        }
+        final Set<Entry<String, Object>> entries = super.entrySet();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                final Iterator<Entry<String, Object>> iterator = entries.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        return new SimpleImmutableEntry<>(iterator.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return entries.contains(o);
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public Set<String> keySet() {
+        return frozen ? Collections.unmodifiableSet(super.keySet()) : super.keySet();
+    }
+
+    @NotNull
+    @Override
+    public Collection<Object> values() {
+        return frozen ? Collections.unmodifiableCollection(super.values()) : super.values();
+    }
+
+    @Override
+    public void freeze(@NotNull Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            optimize(clazz);
+            super.replaceAll((key, value) -> FrozenJsonList.freeze(value, clazz));
+            frozen = true;
+        }
+    }
+
+    @Override
+    public long fingerprint() {
+        if (!frozen) {
+            return JsonFingerprint.ofEntries(this);
+        }
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofEntries(this);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        return frozen;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " is frozen");
+        }
+    }
+
+    /**
+     * Called after the value under the given key may have changed by one of the <code>Map</code>-methods.
+     * Changes through views (e.g. <code>entrySet()</code>) are not reported.
+     *
+     * @param key Key of changed value.
+     */
+    protected void valueChanged(Object key) {
+        indexingLists = IndexingLists.valueChanged(indexingLists, key);
+    }
+
+    @Override
+    public void addIndexingList(JsonListImpl list) {
+        if (!frozen) {
+            // frozen maps don't change
+            indexingLists = IndexingLists.add(indexingLists, list);
+        }
+    }
+
+    @Override
+    public void removeIndexingList(JsonListImpl list) {
+        indexingLists = IndexingLists.remove(indexingLists, list);
+    }
+
 }
@@ -0,0 +1,518 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.typeconverter.TypeConverter;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * {@link JsonList} storing its maps in a compact binary encoding outside the Java heap, for large lists
+ * that would otherwise prolong garbage collection.
+ * <p>
+ * The maps are encoded into direct {@link ByteBuffer}s, keys are replaced by numbers. Elements are decoded on access
+ * into optimized {@link JsonMapImpl}s, so they are equal but not identical to previously gotten elements and changing
+ * them does not change the list. {@link #findAll(String, Object)} and the <code>mapTo...</code>-methods decode
+ * only the values under the given key. Values may be maps, lists, strings, booleans, {@link Integer}s, {@link Long}s,
+ * {@link Float}s, {@link Double}s, {@link BigInteger}s, {@link BigDecimal}s and <code>null</code>.
+ * <p>
+ * Replaced and removed maps keep their memory until the list is cleared. {@link #close()} frees the memory immediately;
+ * the list is empty afterwards and must not be used concurrently while it is closed. The streams of the
+ * <code>mapTo...</code>-methods decode lazily and throw a {@link ConcurrentModificationException} if the list has been
+ * structurally modified, cleared or closed before they are consumed. The list is not thread-safe.
+ */
+public class OffHeapJsonList extends AbstractList<JsonMap> implements JsonList, RandomAccess, AutoCloseable {
+
+    /**
+     * Default size of a segment.
+     */
+    public static final int SEGMENT_SIZE = 1 << 24;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BIG_INTEGER = 7;
+    private static final byte BIG_DECIMAL = 8;
+    private static final byte STRING = 9;
+    private static final byte MAP = 10;
+    private static final byte LIST = 11;
+
+    /**
+     * <code>Unsafe.invokeCleaner(ByteBuffer)</code> or <code>null</code> if direct buffers cannot be freed explicitly.
+     */
+    private static final MethodHandle CLEANER = findCleaner();
+
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> keyIds = new HashMap<>();
+    private final Encoder encoder = new Encoder();
+    /**
+     * Positions of the maps: index of segment in the upper and offset in the lower 32 bits.
+     */
+    private long[] positions = new long[16];
+    private int size;
+    private boolean closed;
+
+    /**
+     * Creates empty list.
+     */
+    public OffHeapJsonList() {
+        this(SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates empty list.
+     *
+     * @param segmentSize Size of the direct buffers. Larger maps get a buffer of their own.
+     */
+    public OffHeapJsonList(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize=" + segmentSize + " must be positive");
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Creates list containing the given maps.
+     *
+     * @param maps Maps.
+     */
+    public OffHeapJsonList(@NotNull Collection<? extends Map<String, ?>> maps) {
+        this();
+        maps.forEach(this::addMap);
+    }
+
+    @Override
+    public JsonMap get(int index) {
+        Objects.checkIndex(index, size);
+        return (JsonMap) decoder(index).readValue();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, JsonMap map) {
+        Objects.checkIndex(index, size + 1);
+        insert(index, write(map));
+    }
+
+    /**
+     * Adds a map at the end of the list.
+     *
+     * @param map Map.
+     */
+    public void addMap(Map<String, ?> map) {
+        insert(size, write(map));
+    }
+
+    private void insert(int index, long position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        positions[index] = position;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public JsonMap set(int index, JsonMap map) {
+        final JsonMap previous = get(index);
+        positions[index] = write(map);
+        return previous;
+    }
+
+    @Override
+    public JsonMap remove(int index) {
+        final JsonMap previous = get(index);
+        System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        segments.forEach(OffHeapJsonList::free);
+        segments.clear();
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Frees the memory of the list. The list is empty and cannot be changed afterwards.
+     */
+    @Override
+    public void close() {
+        clear();
+        closed = true;
+    }
+
+    @Override
+    public <T> List<JsonMap> findAll(String key, T value) {
+        final Integer keyId = keyIds.get(key);
+        final int expectedModCount = modCount;
+        // consumed immediately, the list cannot change meanwhile
+        return IntStream.range(0, size)
+                        .filter(index -> Objects.equals(valueAt(index, keyId, expectedModCount), value))
+                        .mapToObj(this::get)
+                        .toList();
+    }
+
+    @Override
+    public IntStream mapToInt(String key, int defaultValue) {
+        final Integer keyId = keyIds.get(key);
+        final int expectedModCount = modCount;
+        return IntStream.range(0, size).map(index -> TypeConverter.toInt(valueAt(index, keyId, expectedModCount), defaultValue));
+    }
+
+    @Override
+    public LongStream mapToLong(String key, long defaultValue) {
+        final Integer keyId = keyIds.get(key);
+        final int expectedModCount = modCount;
+        return IntStream.range(0, size).mapToLong(index -> TypeConverter.toLong(valueAt(index, keyId, expectedModCount), defaultValue));
+    }
+
+    @Override
+    public DoubleStream mapToDouble(String key, double defaultValue) {
+        final Integer keyId = keyIds.get(key);
+        final int expectedModCount = modCount;
+        return IntStream.range(0, size).mapToDouble(index -> TypeConverter.toDouble(valueAt(index, keyId, expectedModCount), defaultValue));
+    }
+
+    /**
+     * Decodes the value under a key of the map at given index.
+     *
+     * @param index            Index of map.
+     * @param keyId            Number of key or <code>null</code> if no map contains the key.
+     * @param expectedModCount <code>modCount</code> when the index was taken, the memory may have been freed if it changed.
+     * @return value or <code>null</code>.
+     */
+    private Object valueAt(int index, Integer keyId, int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (keyId == null) {
+            return null;
+        }
+        final Decoder decoder = decoder(index);
+        if (decoder.readByte() != MAP) {
+            return null;
+        }
+        for (int entries = decoder.readVarInt(); entries > 0; entries--) {
+            if (decoder.readVarInt() == keyId) {
+                return decoder.readValue();
+            }
+            decoder.skipValue();
+        }
+        return null;
+    }
+
+    private Decoder decoder(int index) {
+        final long position = positions[index];
+        return new Decoder(segments.get((int) (position >>> 32)), (int) position);
+    }
+
+    private long write(Map<String, ?> map) {
+        if (closed) {
+            throw new IllegalStateException("list is closed");
+        }
+        encoder.reset();
+        encoder.writeValue(map);
+        ByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if ((segment == null) || (segment.remaining() < encoder.length)) {
+            segment = ByteBuffer.allocateDirect(Math.max(segmentSize, encoder.length));
+            segments.add(segment);
+        }
+        final long position = ((long) (segments.size() - 1) << 32) | segment.position();
+        segment.put(encoder.bytes, 0, encoder.length);
+        return position;
+    }
+
+    private int keyId(String key) {
+        Integer keyId = keyIds.get(key);
+        if (keyId == null) {
+            keyId = keys.size();
+            keys.add(key);
+            keyIds.put(key, keyId);
+        }
+        return keyId;
+    }
+
+    private static void free(ByteBuffer segment) {
+        if (CLEANER != null) {
+            try {
+                CLEANER.invokeExact(segment);
+            } catch (Throwable e) {
+                throw new IllegalStateException("segment cannot be freed", e);
+            }
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // the garbage collector frees the buffers
+            return null;
+        }
+    }
+
+    /**
+     * Encodes values into a reused array on the heap.
+     */
+    private final class Encoder {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        void writeValue(Object value) {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof final Boolean b) {
+                writeByte(b ? TRUE : FALSE);
+            } else if (value instanceof final Integer i) {
+                writeByte(INT);
+                writeVarInt((i << 1) ^ (i >> 31));
+            } else if (value instanceof final Long l) {
+                writeByte(LONG);
+                writeLong(l);
+            } else if (value instanceof final Float f) {
+                writeByte(FLOAT);
+                writeInt(Float.floatToRawIntBits(f));
+            } else if (value instanceof final Double d) {
+                writeByte(DOUBLE);
+                writeLong(Double.doubleToRawLongBits(d));
+            } else if (value instanceof final BigInteger bigInteger) {
+                writeByte(BIG_INTEGER);
+                writeString(bigInteger.toString());
+            } else if (value instanceof final BigDecimal bigDecimal) {
+                writeByte(BIG_DECIMAL);
+                writeString(bigDecimal.toString());
+            } else if (value instanceof final String s) {
+                writeByte(STRING);
+                writeString(s);
+            } else if (value instanceof final Map<?, ?> map) {
+                writeByte(MAP);
+                writeVarInt(map.size());
+                ((Map<String, ?>) map).forEach((key, v) -> {
+                    writeVarInt(keyId(key));
+                    writeValue(v);
+                });
+            } else if (value instanceof final List<?> list) {
+                writeByte(LIST);
+                writeVarInt(list.size());
+                list.forEach(this::writeValue);
+            } else {
+                throw new IllegalArgumentException("value of " + value.getClass().getSimpleName() + " cannot be stored off-heap");
+            }
+        }
+
+        private void writeString(String s) {
+            final byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        private void writeByte(byte value) {
+            ensureCapacity(1);
+            bytes[length++] = value;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+            }
+        }
+    }
+
+    /**
+     * Decodes values from a segment, starting at a position.
+     */
+    private final class Decoder {
+        private final ByteBuffer segment;
+        private int position;
+
+        Decoder(ByteBuffer segment, int position) {
+            this.segment = segment;
+            this.position = position;
+        }
+
+        Object readValue() {
+            final byte tag = readByte();
+            return switch (tag) {
+                case NULL -> null;
+                case TRUE -> Boolean.TRUE;
+                case FALSE -> Boolean.FALSE;
+                case INT -> {
+                    final int zigZag = readVarInt();
+                    yield (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+                case LONG -> readLong();
+                case FLOAT -> Float.intBitsToFloat(readInt());
+                case DOUBLE -> Double.longBitsToDouble(readLong());
+                case BIG_INTEGER -> new BigInteger(readString());
+                case BIG_DECIMAL -> new BigDecimal(readString());
+                case STRING -> readString();
+                case MAP -> readMap();
+                case LIST -> readList();
+                default -> throw new IllegalStateException("tag=" + tag + " is invalid");
+            };
+        }
+
+        void skipValue() {
+            final byte tag = readByte();
+            switch (tag) {
+                case INT -> readVarInt();
+                case FLOAT -> position += 4;
+                case LONG, DOUBLE -> position += 8;
+                case BIG_INTEGER, BIG_DECIMAL, STRING -> {
+                    final int length = readVarInt();
+                    position += length;
+                }
+                case MAP -> {
+                    for (int entries = readVarInt(); entries > 0; entries--) {
+                        readVarInt();
+                        skipValue();
+                    }
+                }
+                case LIST -> {
+                    for (int elements = readVarInt(); elements > 0; elements--) {
+                        skipValue();
+                    }
+                }
+                default -> {
+                    // NULL, TRUE, FALSE have no payload
+                }
+            }
+        }
+
+        private JsonMapImpl readMap() {
+            final JsonMapImpl map = new JsonMapImpl();
+            for (int entries = readVarInt(); entries > 0; entries--) {
+                final String key = keys.get(readVarInt());
+                map.put(key, readValue());
+            }
+            map.setOptimizedFor(JsonMapImpl.class);
+            return map;
+        }
+
+        /**
+         * Reads list into a {@link JsonListImpl} if all elements are maps, like {@link JsonMap#optimize(Class)}.
+         */
+        private List<?> readList() {
+            final int elements = readVarInt();
+            final List<Object> values = new ArrayList<>(elements);
+            boolean maps = elements > 0;
+            for (int i = 0; i < elements; i++) {
+                final Object value = readValue();
+                maps &= value instanceof JsonMap;
+                values.add(value);
+            }
+            if (maps) {
+                final JsonListImpl list = new JsonListImpl();
+                values.forEach(value -> list.add((JsonMap) value));
+                return list;
+            }
+            return values;
+        }
+
+        private String readString() {
+            final int length = readVarInt();
+            final byte[] utf8 = new byte[length];
+            segment.get(position, utf8);
+            position += length;
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private int readInt() {
+            final int value = segment.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        private long readLong() {
+            final long value = segment.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        private byte readByte() {
+            return segment.get(position++);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable {@link JsonList} of {@link PersistentJsonMap}s whose updates return new versions sharing the maps.
+ * <p>
+ * {@link #with(int, Map)} and {@link #without(int)} copy the references to the maps, not the maps themselves.
+ * The <code>List</code>-methods changing the list throw {@link UnsupportedOperationException}.
+ */
+public final class PersistentJsonList extends AbstractList<JsonMap> implements JsonList, RandomAccess {
+
+    private static final PersistentJsonList EMPTY = new PersistentJsonList(new JsonMap[0]);
+
+    private final JsonMap[] maps;
+
+    /**
+     * Fingerprint of this list, 0 if not computed yet.
+     */
+    private volatile long fingerprint;
+
+    private PersistentJsonList(JsonMap[] maps) {
+        this.maps = maps;
+    }
+
+    /**
+     * Creates a list containing the given maps, converted into {@link PersistentJsonMap}s.
+     *
+     * @param maps Maps.
+     * @return <code>maps</code> if it is a {@link PersistentJsonList}, otherwise a new list.
+     */
+    public static PersistentJsonList of(@NotNull List<? extends Map<String, ?>> maps) {
+        if (maps instanceof final PersistentJsonList persistentJsonList) {
+            return persistentJsonList;
+        }
+        return maps.isEmpty() ? EMPTY : new PersistentJsonList(maps.stream().map(PersistentJsonMap::of).toArray(JsonMap[]::new));
+    }
+
+    @Override
+    public JsonMap get(int index) {
+        return maps[index];
+    }
+
+    @Override
+    public int size() {
+        return maps.length;
+    }
+
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofElements(this);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        return true;
+    }
+
+    /**
+     * Gets a version of this list with the given map at the given index.
+     *
+     * @param index Index. The size of the list appends the map.
+     * @param map   Map, converted into a {@link PersistentJsonMap}.
+     * @return new version.
+     */
+    public PersistentJsonList with(int index, @NotNull Map<String, ?> map) {
+        Objects.checkIndex(index, maps.length + 1);
+        final JsonMap[] newMaps = Arrays.copyOf(maps, Math.max(maps.length, index + 1));
+        newMaps[index] = PersistentJsonMap.of(map);
+        return new PersistentJsonList(newMaps);
+    }
+
+    /**
+     * Gets a version of this list without the map at the given index.
+     *
+     * @param index Index.
+     * @return new version.
+     */
+    public PersistentJsonList without(int index) {
+        Objects.checkIndex(index, maps.length);
+        final JsonMap[] newMaps = new JsonMap[maps.length - 1];
+        System.arraycopy(maps, 0, newMaps, 0, index);
+        System.arraycopy(maps, index + 1, newMaps, index, maps.length - index - 1);
+        return (newMaps.length == 0) ? EMPTY : new PersistentJsonList(newMaps);
+    }
+
+    /**
+     * Converts a list into a persistent list: a {@link PersistentJsonList} if the list is empty or contains only maps,
+     * otherwise an unmodifiable list of persistent values.
+     *
+     * @param list List.
+     * @return persistent list.
+     */
+    @SuppressWarnings("unchecked")
+    static List<?> persistent(@NotNull List<?> list) {
+        if (list.stream().allMatch(Map.class::isInstance)) {
+            return of((List<? extends Map<String, ?>>) list);
+        }
+        return Collections.unmodifiableList(Arrays.asList(list.stream().map(PersistentJsonMap::persistent).toArray()));
+    }
+}
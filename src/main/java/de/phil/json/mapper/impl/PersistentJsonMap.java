@@ -0,0 +1,489 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import de.phil.json.mapper.JsonPath;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable {@link JsonMap} whose updates return new versions sharing all unchanged entries and subtrees.
+ * <p>
+ * The entries are stored in a hash array mapped trie, so {@link #with(String, Object)} and {@link #without(String)}
+ * copy only the nodes on the way to the key, i.e. O(log n) for n keys. {@link #withPath(String, Object)} copies
+ * the maps and lists on the path. Copying a version is not necessary at all, it can be shared.
+ * Nested maps are stored as {@link PersistentJsonMap}s, lists of maps as {@link PersistentJsonList}s
+ * and other lists as unmodifiable lists.
+ * The <code>Map</code>-methods changing the map throw {@link UnsupportedOperationException}.
+ * Maps can be read by {@link JsonMapping} like other maps, which converts them after reading.
+ */
+public final class PersistentJsonMap extends AbstractMap<String, Object> implements JsonMap {
+
+    private static final PersistentJsonMap EMPTY = new PersistentJsonMap(new Node(0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Fingerprint of this map, 0 if not computed yet.
+     */
+    private volatile long fingerprint;
+
+    private PersistentJsonMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty map.
+     *
+     * @return empty map.
+     */
+    public static PersistentJsonMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a map containing the entries of the given map. Nested maps and lists are converted.
+     *
+     * @param map Map.
+     * @return <code>map</code> if it is a {@link PersistentJsonMap}, otherwise a new map.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static PersistentJsonMap of(@NotNull Map<String, ?> map) {
+        if (map instanceof final PersistentJsonMap persistentJsonMap) {
+            return persistentJsonMap;
+        }
+        PersistentJsonMap result = EMPTY;
+        for (Entry<String, ?> entry : map.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Gets a version of this map with the given value under the given key.
+     *
+     * @param key   Key.
+     * @param value Value. Maps and lists are converted into persistent maps and lists.
+     * @return new version or this map if it already contains the value.
+     */
+    public PersistentJsonMap with(@NotNull String key, Object value) {
+        final Object persistentValue = persistent(value);
+        final Node newRoot = root.with(new Leaf(key, persistentValue), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentJsonMap(newRoot, containsKey(key) ? size : size + 1);
+    }
+
+    /**
+     * Gets a version of this map without the given key.
+     *
+     * @param key Key.
+     * @return new version or this map if it does not contain the key.
+     */
+    public PersistentJsonMap without(@NotNull String key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        final Object newRoot = root.without(key, key.hashCode(), 0);
+        return (size == 1) ? EMPTY : new PersistentJsonMap(asNode(newRoot, 0), size - 1);
+    }
+
+    /**
+     * Gets a version of this map with the given value at the end of the path (see {@link JsonPath}).
+     * Missing maps on the path are created, an index equal to the size of a list appends to the list.
+     *
+     * @param path  Path expression.
+     * @param value Value. Maps and lists are converted into persistent maps and lists.
+     * @return new version.
+     * @throws IllegalArgumentException path is invalid or leads through a value which is neither a map nor a list.
+     */
+    public PersistentJsonMap withPath(@NotNull String path, Object value) throws IllegalArgumentException {
+        return (PersistentJsonMap) withPath(this, JsonPath.compile(path), 0, value);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofEntries(this);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        return true;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key instanceof final String s) && (root.find(s, s.hashCode(), 0) != null);
+    }
+
+    @Override
+    public Object get(Object key) {
+        final Leaf leaf = (key instanceof final String s) ? root.find(s, s.hashCode(), 0) : null;
+        return (leaf == null) ? null : leaf.getValue();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new LeafIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public JsonMap getAsMap(String key) {
+        return (get(key) instanceof final JsonMap map) ? map : getAsMap(key, JsonMapImpl.class);
+    }
+
+    /**
+     * Gets value under given key as a map. Maps of other classes than {@link PersistentJsonMap} are copies.
+     *
+     * @param key   key.
+     * @param clazz Class of map.
+     * @param <T>   map-type.
+     * @return value under key.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Override
+    public <T extends Map> T getAsMap(String key, Class<T> clazz) {
+        final Object value = get(key);
+        return ((value == null) || clazz.isInstance(value)) ? (T) value : JsonMapping.copyValue(value, clazz);
+    }
+
+    @Override
+    public JsonList getAsJsonList(String key) {
+        return (get(key) instanceof final JsonList list) ? list : getAsJsonList(key, JsonMapImpl.class);
+    }
+
+    /**
+     * Gets value under given key as {@link JsonList} of given map-class.
+     * Lists of other maps than {@link PersistentJsonMap}s are copies.
+     *
+     * @param key   key.
+     * @param clazz Class of map-types.
+     * @param <T>   map-type.
+     * @return value under key.
+     */
+    @Override
+    public <T extends JsonMap> JsonList getAsJsonList(String key, Class<T> clazz) {
+        final Object value = get(key);
+        if ((value instanceof final JsonList list) && (list.isEmpty() || clazz.isInstance(list.get(0)))) {
+            return list;
+        }
+        return (value == null) ? null : ((List<?>) value).stream()
+                                                         .map(o -> JsonMapping.copyValue(o, clazz))
+                                                         .collect(Collectors.toCollection(JsonListImpl::new));
+    }
+
+    @Override
+    public void optimize(@NotNull Class<? extends JsonMap> clazz) {
+        // values are converted when they are added
+    }
+
+    @Override
+    public void optimizeLazily(@NotNull Class<? extends JsonMap> clazz) {
+        // values are converted when they are added
+    }
+
+    /**
+     * Converts maps and lists into persistent maps and lists.
+     *
+     * @param value Value.
+     * @return persistent value.
+     */
+    @SuppressWarnings("unchecked")
+    static Object persistent(Object value) {
+        if (value instanceof final Map<?, ?> map) {
+            return of((Map<String, ?>) map);
+        }
+        if (value instanceof final List<?> list) {
+            return PersistentJsonList.persistent(list);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object withPath(Object container, JsonPath path, int segment, Object value) {
+        final String key = path.getKey(segment);
+        final boolean last = segment == path.size() - 1;
+        if (key != null) {
+            if (container == null) {
+                container = EMPTY;
+            } else if (!(container instanceof PersistentJsonMap)) {
+                throw new IllegalArgumentException("path=" + path + " leads through a value which is no map at segment " + segment);
+            }
+            final PersistentJsonMap map = (PersistentJsonMap) container;
+            return map.with(key, last ? value : withPath(map.get(key), path, segment + 1, value));
+        }
+        if (!(container instanceof final List<?> list)) {
+            throw new IllegalArgumentException("path=" + path + " leads through a value which is no list at segment " + segment);
+        }
+        final int index = path.getIndex(segment);
+        if (index > list.size()) {
+            throw new IllegalArgumentException("path=" + path + " has index " + index + " beyond the list at segment " + segment);
+        }
+        final Object element = (index < list.size()) ? list.get(index) : null;
+        final Object newElement = last ? value : withPath(element, path, segment + 1, value);
+        if ((list instanceof final PersistentJsonList maps) && (newElement instanceof final Map<?, ?> map)) {
+            return maps.with(index, (Map<String, ?>) map);
+        }
+        final Object[] elements = list.toArray(new Object[Math.max(list.size(), index + 1)]);
+        elements[index] = newElement;
+        return PersistentJsonList.persistent(Arrays.asList(elements));
+    }
+
+    /**
+     * Node of the trie, wrapping a slot that is a {@link Leaf} or {@link Collision} into a node if necessary.
+     */
+    private static Node asNode(Object slot, int shift) {
+        if (slot instanceof final Node node) {
+            return node;
+        }
+        return new Node(1 << index(hash(slot), shift), new Object[]{slot});
+    }
+
+    private static int hash(Object slot) {
+        return (slot instanceof final Leaf leaf) ? leaf.hash : ((Collision) slot).hash;
+    }
+
+    private static int index(int hash, int shift) {
+        return (hash >>> shift) & 31;
+    }
+
+    /**
+     * Combines two slots with different hashes into a node at the given level.
+     */
+    private static Node merge(Object a, Object b, int shift) {
+        final int indexA = index(hash(a), shift);
+        final int indexB = index(hash(b), shift);
+        if (indexA == indexB) {
+            return new Node(1 << indexA, new Object[]{merge(a, b, shift + 5)});
+        }
+        return new Node((1 << indexA) | (1 << indexB), (indexA < indexB) ? new Object[]{a, b} : new Object[]{b, a});
+    }
+
+    /**
+     * Entry of the map.
+     */
+    private static final class Leaf extends SimpleImmutableEntry<String, Object> {
+        private final int hash;
+
+        Leaf(String key, Object value) {
+            super(key, value);
+            this.hash = key.hashCode();
+        }
+    }
+
+    /**
+     * Entries whose keys have the same hash code.
+     */
+    private record Collision(int hash, Leaf[] leaves) {
+        Leaf find(String key) {
+            for (Leaf leaf : leaves) {
+                if (leaf.getKey().equals(key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        Collision with(Leaf leaf) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].getKey().equals(leaf.getKey())) {
+                    final Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new Collision(hash, newLeaves);
+                }
+            }
+            final Leaf[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+            newLeaves[leaves.length] = leaf;
+            return new Collision(hash, newLeaves);
+        }
+
+        Object without(String key) {
+            if (leaves.length == 2) {
+                return leaves[leaves[0].getKey().equals(key) ? 1 : 0];
+            }
+            return new Collision(hash, Arrays.stream(leaves).filter(leaf -> !leaf.getKey().equals(key)).toArray(Leaf[]::new));
+        }
+    }
+
+    /**
+     * Node of the trie with up to 32 slots, each slot being a {@link Leaf}, a {@link Collision} or a {@link Node}.
+     * The bitmap marks the used slots of the 5 bits of the hash code that belong to the level of the node.
+     */
+    private record Node(int bitmap, Object[] slots) {
+        Leaf find(String key, int hash, int shift) {
+            final int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof final Leaf leaf) {
+                return leaf.getKey().equals(key) ? leaf : null;
+            }
+            if (slot instanceof final Collision collision) {
+                return (collision.hash == hash) ? collision.find(key) : null;
+            }
+            return ((Node) slot).find(key, hash, shift + 5);
+        }
+
+        Node with(Leaf leaf, int shift) {
+            final int bit = 1 << index(leaf.hash, shift);
+            final int position = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                final Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, position);
+                newSlots[position] = leaf;
+                System.arraycopy(slots, position, newSlots, position + 1, slots.length - position);
+                return new Node(bitmap | bit, newSlots);
+            }
+            final Object slot = slots[position];
+            final Object newSlot;
+            if (slot instanceof final Leaf existing) {
+                if (existing.getKey().equals(leaf.getKey())) {
+                    if (existing.getValue() == leaf.getValue()) {
+                        return this;
+                    }
+                    newSlot = leaf;
+                } else if (existing.hash == leaf.hash) {
+                    newSlot = new Collision(leaf.hash, new Leaf[]{existing, leaf});
+                } else {
+                    newSlot = merge(existing, leaf, shift + 5);
+                }
+            } else if (slot instanceof final Collision collision) {
+                newSlot = (collision.hash == leaf.hash) ? collision.with(leaf) : merge(collision, leaf, shift + 5);
+            } else {
+                newSlot = ((Node) slot).with(leaf, shift + 5);
+                if (newSlot == slot) {
+                    return this;
+                }
+            }
+            final Object[] newSlots = slots.clone();
+            newSlots[position] = newSlot;
+            return new Node(bitmap, newSlots);
+        }
+
+        /**
+         * Removes key, which must be contained in this node.
+         *
+         * @return node without the key, or the only remaining {@link Leaf} or {@link Collision}, or <code>null</code> if empty.
+         */
+        Object without(String key, int hash, int shift) {
+            final int bit = 1 << index(hash, shift);
+            final int position = Integer.bitCount(bitmap & (bit - 1));
+            final Object slot = slots[position];
+            final Object newSlot;
+            if (slot instanceof Leaf) {
+                newSlot = null;
+            } else if (slot instanceof final Collision collision) {
+                newSlot = collision.without(key);
+            } else {
+                newSlot = ((Node) slot).without(key, hash, shift + 5);
+            }
+            if (newSlot == null) {
+                if (slots.length == 1) {
+                    return null;
+                }
+                final Object[] newSlots = new Object[slots.length - 1];
+                System.arraycopy(slots, 0, newSlots, 0, position);
+                System.arraycopy(slots, position + 1, newSlots, position, slots.length - position - 1);
+                if ((newSlots.length == 1) && !(newSlots[0] instanceof Node)) {
+                    // the parent can hold the remaining entry itself
+                    return newSlots[0];
+                }
+                return new Node(bitmap & ~bit, newSlots);
+            }
+            if ((slots.length == 1) && !(newSlot instanceof Node)) {
+                return newSlot;
+            }
+            final Object[] newSlots = slots.clone();
+            newSlots[position] = newSlot;
+            return new Node(bitmap, newSlots);
+        }
+    }
+
+    /**
+     * Iterates depth-first over the leaves of a trie.
+     */
+    private static final class LeafIterator implements Iterator<Entry<String, Object>> {
+        private final Deque<Iterator<?>> stack = new ArrayDeque<>();
+        private Leaf next;
+
+        LeafIterator(Node root) {
+            stack.push(Arrays.asList(root.slots).iterator());
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Leaf leaf = next;
+            advance();
+            return leaf;
+        }
+
+        private void advance() {
+            next = null;
+            while ((next == null) && !stack.isEmpty()) {
+                final Iterator<?> slots = stack.peek();
+                if (!slots.hasNext()) {
+                    stack.pop();
+                } else {
+                    final Object slot = slots.next();
+                    if (slot instanceof final Leaf leaf) {
+                        next = leaf;
+                    } else if (slot instanceof final Collision collision) {
+                        stack.push(Arrays.asList(collision.leaves).iterator());
+                    } else {
+                        stack.push(Arrays.asList(((Node) slot).slots).iterator());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,502 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * {@link JsonMap} keeping its keys sorted in an array.
+ * <p>
+ * {@link de.phil.json.mapper.JsonMapping} orders map entries by keys when writing, which copies every other map into
+ * a <code>TreeMap</code>. Sorted maps are written as they are, so writing maps of this class allocates less.
+ * Keys are looked up by binary search; putting keys in sorted order, as read from written JSON, only appends them.
+ */
+public class SortedJsonMap extends AbstractMap<String, Object> implements JsonMap, SortedMap<String, Object>, IndexedMap {
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private String[] keys = NO_KEYS;
+    private Object[] values = NO_VALUES;
+    private int size;
+
+    /**
+     * Number of added or removed keys, to detect changes while iterating.
+     */
+    private int modCount;
+
+    /**
+     * Class that this map is optimized for.
+     */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends Map> optimizedForClass;
+
+    /**
+     * Class that this map is lazily optimized for.
+     */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends Map> lazilyOptimizedForClass;
+
+    /**
+     * Lists indexing this map (see {@link JsonListImpl#indexBy(String)}).
+     */
+    private IndexingLists indexingLists;
+
+    /**
+     * Whether this map is read-only (see {@link #freeze(Class)}).
+     */
+    private boolean frozen;
+
+    /**
+     * Fingerprint of the frozen map, 0 if not computed yet.
+     */
+    private volatile long fingerprint;
+
+    /**
+     * Creates empty map.
+     */
+    public SortedJsonMap() {
+    }
+
+    /**
+     * Creates new map from given map.
+     *
+     * @param values Map.
+     */
+    public SortedJsonMap(@NotNull Map<String, ?> values) {
+        putAll(values);
+        optimize(getClass());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key instanceof String) && (indexOf((String) key) >= 0);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final int index = indexOf((String) key);
+        return (index >= 0) ? values[index] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        checkNotFrozen();
+        Objects.requireNonNull(key, "key");
+        int index = indexOf(key);
+        final Object previous;
+        if (index >= 0) {
+            previous = values[index];
+            values[index] = value;
+        } else {
+            previous = null;
+            index = -index - 1;
+            if (size == keys.length) {
+                final int capacity = Math.max(4, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            size++;
+            modCount++;
+        }
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        checkNotFrozen();
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final int index = indexOf((String) key);
+        if (index < 0) {
+            return null;
+        }
+        final Object previous = values[index];
+        size--;
+        System.arraycopy(keys, index + 1, keys, index, size - index);
+        System.arraycopy(values, index + 1, values, index, size - index);
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        valueChanged(key);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        checkNotFrozen();
+        final String[] removedKeys = Arrays.copyOf(keys, size);
+        keys = NO_KEYS;
+        values = NO_VALUES;
+        size = 0;
+        modCount++;
+        for (String key : removedKeys) {
+            valueChanged(key);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new EntrySet(null, null);
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+        // natural order
+        return null;
+    }
+
+    @Override
+    public String firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[0];
+    }
+
+    @Override
+    public String lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[size - 1];
+    }
+
+    @NotNull
+    @Override
+    public SortedMap<String, Object> subMap(String fromKey, String toKey) {
+        Objects.requireNonNull(fromKey, "fromKey");
+        Objects.requireNonNull(toKey, "toKey");
+        return new SubMap(fromKey, toKey);
+    }
+
+    @NotNull
+    @Override
+    public SortedMap<String, Object> headMap(String toKey) {
+        return new SubMap(null, Objects.requireNonNull(toKey, "toKey"));
+    }
+
+    @NotNull
+    @Override
+    public SortedMap<String, Object> tailMap(String fromKey) {
+        return new SubMap(Objects.requireNonNull(fromKey, "fromKey"), null);
+    }
+
+    @Override
+    public void setOptimizedFor(Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            this.optimizedForClass = clazz;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean isOptimizedFor(Class<? extends Map> clazz) {
+        return clazz == optimizedForClass;
+    }
+
+    @Override
+    public void setLazilyOptimizedFor(Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            this.lazilyOptimizedForClass = clazz;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean isLazilyOptimizedFor(Class<? extends Map> clazz) {
+        return clazz == lazilyOptimizedForClass;
+    }
+
+    @Override
+    public void freeze(@NotNull Class<? extends JsonMap> clazz) {
+        if (!frozen) {
+            optimize(clazz);
+            for (int i = 0; i < size; i++) {
+                values[i] = FrozenJsonList.freeze(values[i], clazz);
+            }
+            frozen = true;
+        }
+    }
+
+    @Override
+    public long fingerprint() {
+        if (!frozen) {
+            return JsonFingerprint.ofEntries(this);
+        }
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofEntries(this);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        return frozen;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public void addIndexingList(JsonListImpl list) {
+        if (!frozen) {
+            // frozen maps don't change
+            indexingLists = IndexingLists.add(indexingLists, list);
+        }
+    }
+
+    @Override
+    public void removeIndexingList(JsonListImpl list) {
+        indexingLists = IndexingLists.remove(indexingLists, list);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " is frozen");
+        }
+    }
+
+    /**
+     * Called after the value under the given key may have changed.
+     *
+     * @param key Key of changed value.
+     */
+    protected void valueChanged(Object key) {
+        indexingLists = IndexingLists.valueChanged(indexingLists, key);
+    }
+
+    /**
+     * Searches a key.
+     *
+     * @param key Key.
+     * @return index of the key, or <code>-(insertion point) - 1</code> if the map doesn't contain the key.
+     */
+    private int indexOf(String key) {
+        if ((size == 0) || (keys[size - 1].compareTo(key) < 0)) {
+            // appending, e.g. while reading sorted JSON
+            return -size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    /**
+     * Index of the first key not less than the given key.
+     *
+     * @param key Key, <code>null</code> for the first key.
+     * @return index.
+     */
+    private int lowerBound(String key) {
+        if (key == null) {
+            return 0;
+        }
+        final int index = indexOf(key);
+        return (index >= 0) ? index : (-index - 1);
+    }
+
+    /**
+     * Entries of the keys from <code>fromKey</code> (inclusive) to <code>toKey</code> (exclusive).
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        private final String fromKey;
+        private final String toKey;
+
+        EntrySet(String fromKey, String toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<>() {
+                private int next = lowerBound(fromKey);
+                private int end = (toKey == null) ? size : lowerBound(toKey);
+                private int expectedModCount = modCount;
+                private boolean removable;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (expectedModCount != modCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final int index = next++;
+                    removable = true;
+                    return new SimpleEntry<>(keys[index], values[index]) {
+                        @Override
+                        public Object setValue(Object value) {
+                            super.setValue(value);
+                            return put(getKey(), value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (!removable || (expectedModCount != modCount)) {
+                        throw new IllegalStateException();
+                    }
+                    SortedJsonMap.this.remove(keys[--next]);
+                    end--;
+                    expectedModCount = modCount;
+                    removable = false;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return Math.max(0, ((toKey == null) ? size : lowerBound(toKey)) - lowerBound(fromKey));
+        }
+    }
+
+    /**
+     * View of the keys from <code>fromKey</code> (inclusive) to <code>toKey</code> (exclusive),
+     * <code>null</code> meaning unbounded.
+     */
+    private final class SubMap extends AbstractMap<String, Object> implements SortedMap<String, Object> {
+        private final String fromKey;
+        private final String toKey;
+
+        SubMap(String fromKey, String toKey) {
+            if ((fromKey != null) && (toKey != null) && (fromKey.compareTo(toKey) > 0)) {
+                throw new IllegalArgumentException("fromKey=" + fromKey + " is greater than toKey=" + toKey);
+            }
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        private boolean inRange(Object key) {
+            return (key instanceof final String string) && ((fromKey == null) || (fromKey.compareTo(string) <= 0))
+                    && ((toKey == null) || (string.compareTo(toKey) < 0));
+        }
+
+        private void checkInRange(String key) {
+            if (!inRange(Objects.requireNonNull(key, "key"))) {
+                throw new IllegalArgumentException("key=" + key + " is out of range");
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return inRange(key) && SortedJsonMap.this.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return inRange(key) ? SortedJsonMap.this.get(key) : null;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            checkInRange(key);
+            return SortedJsonMap.this.put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return inRange(key) ? SortedJsonMap.this.remove(key) : null;
+        }
+
+        @NotNull
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new EntrySet(fromKey, toKey);
+        }
+
+        @Override
+        public Comparator<? super String> comparator() {
+            return null;
+        }
+
+        @Override
+        public String firstKey() {
+            final int index = lowerBound(fromKey);
+            if ((index >= size) || !inRange(keys[index])) {
+                throw new NoSuchElementException();
+            }
+            return keys[index];
+        }
+
+        @Override
+        public String lastKey() {
+            final int index = ((toKey == null) ? size : lowerBound(toKey)) - 1;
+            if ((index < 0) || !inRange(keys[index])) {
+                throw new NoSuchElementException();
+            }
+            return keys[index];
+        }
+
+        @NotNull
+        @Override
+        public SortedMap<String, Object> subMap(String fromKey, String toKey) {
+            checkInRange(fromKey);
+            checkBound(toKey);
+            return new SubMap(fromKey, toKey);
+        }
+
+        @NotNull
+        @Override
+        public SortedMap<String, Object> headMap(String toKey) {
+            checkBound(toKey);
+            return new SubMap(fromKey, toKey);
+        }
+
+        @NotNull
+        @Override
+        public SortedMap<String, Object> tailMap(String fromKey) {
+            checkInRange(fromKey);
+            return new SubMap(fromKey, toKey);
+        }
+
+        /**
+         * Checks an exclusive upper bound of a view of this view.
+         */
+        private void checkBound(String key) {
+            Objects.requireNonNull(key, "toKey");
+            if (((fromKey != null) && (key.compareTo(fromKey) < 0)) || ((toKey != null) && (key.compareTo(toKey) > 0))) {
+                throw new IllegalArgumentException("toKey=" + key + " is out of range");
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import de.phil.json.mapper.JsonFingerprint;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link JsonMapImpl} caching its JSON, so serializing a large tree again after changing some values
+ * only serializes the changed maps and copies the JSON of the others.
+ * <p>
+ * A map caches its JSON if its values are strings, numbers, booleans, <code>null</code> or cached maps of this class;
+ * lists are serialized each time, but their maps are cached. A change by one of the <code>Map</code>-methods drops
+ * the JSON of the map and of the maps containing it, as does a change through the views (e.g. <code>entrySet()</code>).
+ * Therefore values must not be changed in place, except maps of this class.
+ * Only compact JSON is cached; other formats and pretty printing serialize the map as usual. The cached JSON is only
+ * written by mappers and generators configured like the one that created it, all others serialize the map as usual.
+ * The {@link #fingerprint()} is cached the same way.
+ * The output is the same as without caching.
+ */
+@JsonSerialize(using = TrackingJsonMap.Serializer.class)
+public class TrackingJsonMap extends JsonMapImpl {
+
+    /**
+     * JSON of this map, <code>null</code> if the map has changed since it was serialized.
+     */
+    private transient String json;
+
+    /**
+     * Configuration {@link #json} was written with.
+     */
+    private transient OutputConfig jsonConfig;
+
+    /**
+     * Fingerprint of this map, 0 if the map has changed since it was computed.
+     */
+    private transient volatile long fingerprint;
+
+    /**
+     * Maps that contained this map when it was added to them. Referenced weakly, so unused maps (e.g. clones)
+     * are not kept alive by their values. Maps no longer containing this map are dropped when it changes.
+     */
+    private transient List<WeakReference<TrackingJsonMap>> parents;
+
+    /**
+     * Creates empty map.
+     */
+    public TrackingJsonMap() {
+    }
+
+    /**
+     * Creates new map from given map.
+     *
+     * @param values Map.
+     */
+    public TrackingJsonMap(Map<String, Object> values) {
+        super(values);
+        values().forEach(this::addAsParent);
+    }
+
+    /**
+     * Checks whether this map has changed since it was serialized to JSON last.
+     *
+     * @return true if the map has no cached JSON.
+     */
+    public boolean isDirty() {
+        return json == null;
+    }
+
+    @Override
+    public TrackingJsonMap clone() {
+        final TrackingJsonMap clone = (TrackingJsonMap) super.clone();
+        clone.json = null;
+        clone.fingerprint = 0;
+        clone.parents = null;
+        clone.values().forEach(clone::addAsParent);
+        return clone;
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        final Set<Entry<String, Object>> entries = super.entrySet();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new TrackingIterator<>(entries.iterator(), TrackingEntry::new);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return entries.contains(o);
+            }
+
+            @Override
+            public void clear() {
+                TrackingJsonMap.this.clear();
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public Set<String> keySet() {
+        final Set<Entry<String, Object>> entries = super.entrySet();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new TrackingIterator<>(entries.iterator(), Entry::getKey);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (!containsKey(o)) {
+                    return false;
+                }
+                TrackingJsonMap.this.remove(o);
+                return true;
+            }
+
+            @Override
+            public void clear() {
+                TrackingJsonMap.this.clear();
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public Collection<Object> values() {
+        final Set<Entry<String, Object>> entries = super.entrySet();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new TrackingIterator<>(entries.iterator(), Entry::getValue);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsValue(o);
+            }
+
+            @Override
+            public void clear() {
+                TrackingJsonMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = JsonFingerprint.ofEntries(this);
+            if (isCacheable(child -> child.fingerprint != 0)) {
+                this.fingerprint = fingerprint;
+            }
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean isFingerprintCached() {
+        // nested maps cache their fingerprints as well
+        return isCacheable(child -> true);
+    }
+
+    @Override
+    protected void valueChanged(Object key) {
+        super.valueChanged(key);
+        addAsParent(super.get(key));
+        invalidate();
+    }
+
+    private void addAsParent(Object value) {
+        if (value instanceof final TrackingJsonMap child) {
+            if (child.parents == null) {
+                child.parents = new ArrayList<>(1);
+            }
+            child.parents.removeIf(parent -> parent.get() == null);
+            if (child.parents.stream().noneMatch(parent -> parent.get() == this)) {
+                child.parents.add(new WeakReference<>(this));
+            }
+        }
+    }
+
+    private void invalidate() {
+        // maps containing a map without JSON or fingerprint have none either
+        if ((json != null) || (fingerprint != 0)) {
+            json = null;
+            fingerprint = 0;
+            if (parents != null) {
+                for (Iterator<WeakReference<TrackingJsonMap>> it = parents.iterator(); it.hasNext(); ) {
+                    final TrackingJsonMap parent = it.next().get();
+                    if ((parent == null) || !parent.containsChild(this)) {
+                        // replaced or removed since it was added
+                        it.remove();
+                    } else {
+                        parent.invalidate();
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean containsChild(TrackingJsonMap child) {
+        for (Object value : super.values()) {
+            if (value == child) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCacheable(Predicate<TrackingJsonMap> cached) {
+        for (Object value : values()) {
+            if ((value != null) && !(value instanceof String) && !(value instanceof Boolean) && !(value instanceof Integer)
+                    && !(value instanceof Long) && !(value instanceof Double) && !(value instanceof Float)
+                    && !(value instanceof BigInteger) && !(value instanceof BigDecimal)
+                    && !((value instanceof final TrackingJsonMap child) && cached.test(child))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        values().forEach(this::addAsParent);
+    }
+
+    /**
+     * Iterator over a view reporting removed entries.
+     */
+    private final class TrackingIterator<E> implements Iterator<E> {
+        private final Iterator<Entry<String, Object>> entries;
+        private final Function<Entry<String, Object>, E> element;
+        private String key;
+
+        TrackingIterator(Iterator<Entry<String, Object>> entries, Function<Entry<String, Object>, E> element) {
+            this.entries = entries;
+            this.element = element;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public E next() {
+            final Entry<String, Object> entry = entries.next();
+            key = entry.getKey();
+            return element.apply(entry);
+        }
+
+        @Override
+        public void remove() {
+            entries.remove();
+            valueChanged(key);
+        }
+    }
+
+    /**
+     * Entry reporting changed values.
+     */
+    private final class TrackingEntry implements Entry<String, Object> {
+        private final Entry<String, Object> entry;
+
+        TrackingEntry(Entry<String, Object> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public Object getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            final Object previous = entry.setValue(value);
+            valueChanged(entry.getKey());
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+
+    /**
+     * Configuration of mapper and generator that determines the JSON of a map. Serialization configurations are compared
+     * by identity, they are replaced whenever a mapper or writer is reconfigured.
+     *
+     * @param serializationConfig   Configuration of the mapper or writer.
+     * @param features              Features of the generator.
+     * @param escapes               Character escapes of the generator or <code>null</code>.
+     * @param highestNonEscapedChar Highest character written without escaping or 0 for no limit.
+     */
+    private record OutputConfig(SerializationConfig serializationConfig, int features, CharacterEscapes escapes,
+                                int highestNonEscapedChar) {
+    }
+
+    /**
+     * Writes the cached JSON of a map or serializes it like any other map.
+     */
+    static final class Serializer extends StdSerializer<TrackingJsonMap> {
+
+        private static final JavaType MAP_TYPE = TypeFactory.defaultInstance().constructMapType(Map.class, String.class, Object.class);
+
+        Serializer() {
+            super(TrackingJsonMap.class);
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, TrackingJsonMap value) {
+            return value.isEmpty();
+        }
+
+        @Override
+        public void serialize(TrackingJsonMap map, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            final JsonSerializer<Object> mapSerializer = provider.findValueSerializer(MAP_TYPE, null);
+            if (!(gen instanceof final JsonGeneratorImpl jsonGen) || (gen.getPrettyPrinter() != null) || (gen.getCodec() == null)) {
+                mapSerializer.serialize(map, gen, provider);
+                return;
+            }
+            final OutputConfig config = new OutputConfig(provider.getConfig(), jsonGen.getFeatureMask(), jsonGen.getCharacterEscapes(),
+                                                         jsonGen.getHighestEscapedChar());
+            String json = config.equals(map.jsonConfig) ? map.json : null;
+            if (json == null) {
+                final StringWriter writer = new StringWriter();
+                try (JsonGenerator generator = gen.getCodec().getFactory().createGenerator(writer)) {
+                    generator.overrideStdFeatures(config.features(), ~0);
+                    if (config.escapes() != null) {
+                        generator.setCharacterEscapes(config.escapes());
+                    }
+                    generator.setHighestNonEscapedChar(config.highestNonEscapedChar());
+                    mapSerializer.serialize(map, generator, provider);
+                }
+                json = writer.toString();
+                if (map.isCacheable(child -> (child.json != null) && config.equals(child.jsonConfig))) {
+                    map.json = json;
+                    map.jsonConfig = config;
+                }
+            }
+            gen.writeRawValue(json);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.patch;
+
+import de.phil.json.mapper.JsonMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural differences between two maps, e.g. to find the drift between two versions of a configuration.
+ * <p>
+ * Maps and lists caching their fingerprints (see {@link JsonMap#isFingerprintCached()}), i.e. frozen, persistent
+ * and tracking maps, are skipped without comparing their content if their fingerprints are equal. So diffing two
+ * large frozen trees differing in a few values only visits the maps on the paths to these values, once the
+ * fingerprints have been computed. Other maps and lists are compared completely.
+ * Like {@link JsonPatch#diff(Map, Map)} <code>null</code> values are treated like missing keys, numbers are only
+ * the same if they are written alike and lists are compared element by element after skipping equal elements
+ * at their start and end.
+ */
+public final class JsonDiff {
+
+    private JsonDiff() {
+    }
+
+    /**
+     * Kind of a difference.
+     */
+    public enum Type {
+        /**
+         * The value exists in the target only.
+         */
+        ADDED,
+        /**
+         * The value exists in the source only.
+         */
+        REMOVED,
+        /**
+         * The value exists in both, but differs.
+         */
+        CHANGED
+    }
+
+    /**
+     * Difference of a value.
+     *
+     * @param type     Kind of difference.
+     * @param path     JSON pointer (RFC 6901) to the value. Indices of removed list elements refer to the source list,
+     *                 of added ones to the target list and of changed ones to both.
+     * @param oldValue Value in the source, <code>null</code> if added.
+     * @param newValue Value in the target, <code>null</code> if removed.
+     */
+    public record Difference(@NotNull Type type, @NotNull String path, Object oldValue, Object newValue) {
+    }
+
+    /**
+     * Compares two maps. Only the outermost changed values are reported, e.g. a map added to the target
+     * is one difference. The values are not copied.
+     *
+     * @param source Old map.
+     * @param target New map.
+     * @return differences ordered like the keys of the maps; empty if the maps are the same.
+     */
+    public static List<Difference> diff(@NotNull Map<String, ?> source, @NotNull Map<String, ?> target) {
+        final List<Difference> differences = new ArrayList<>();
+        if ((source != target) && !JsonValues.sameFingerprint(source, target)) {
+            diffMaps("", source, target, differences);
+        }
+        return differences;
+    }
+
+    /**
+     * Checks whether two maps are the same as compared by {@link #diff(Map, Map)}, without collecting the differences.
+     *
+     * @param source Map.
+     * @param target Map.
+     * @return true if there are no differences.
+     */
+    public static boolean same(@NotNull Map<String, ?> source, @NotNull Map<String, ?> target) {
+        return JsonValues.same(source, target);
+    }
+
+    /**
+     * Compares the values under a key or index.
+     *
+     * @param path Path of the map or list containing the values.
+     * @param key  Key or index of the values, only escaped and added to the path for differences.
+     */
+    private static void diffValues(String path, Object key, Object source, Object target, List<Difference> differences) {
+        if ((source == target) || JsonValues.sameFingerprint(source, target)) {
+            // unchanged subtree
+            return;
+        }
+        if ((source instanceof final Map<?, ?> sourceMap) && (target instanceof final Map<?, ?> targetMap)) {
+            diffMaps(pointer(path, key), sourceMap, targetMap, differences);
+        } else if ((source instanceof final List<?> sourceList) && (target instanceof final List<?> targetList)) {
+            diffLists(pointer(path, key), sourceList, targetList, differences);
+        } else if (!JsonValues.same(source, target)) {
+            differences.add(new Difference(Type.CHANGED, pointer(path, key), source, target));
+        }
+    }
+
+    private static void diffMaps(String path, @NotNull Map<?, ?> source, @NotNull Map<?, ?> target, List<Difference> differences) {
+        source.forEach((key, value) -> {
+            if ((value != null) && (target.get(key) == null)) {
+                differences.add(new Difference(Type.REMOVED, pointer(path, key), value, null));
+            }
+        });
+        target.forEach((key, value) -> {
+            if (value != null) {
+                final Object sourceValue = source.get(key);
+                if (sourceValue == null) {
+                    differences.add(new Difference(Type.ADDED, pointer(path, key), null, value));
+                } else {
+                    diffValues(path, key, sourceValue, value, differences);
+                }
+            }
+        });
+    }
+
+    private static void diffLists(String path, @NotNull List<?> source, @NotNull List<?> target, List<Difference> differences) {
+        int start = 0;
+        int sourceEnd = source.size();
+        int targetEnd = target.size();
+        while ((start < sourceEnd) && (start < targetEnd) && JsonValues.same(source.get(start), target.get(start))) {
+            start++;
+        }
+        while ((sourceEnd > start) && (targetEnd > start) && JsonValues.same(source.get(sourceEnd - 1), target.get(targetEnd - 1))) {
+            sourceEnd--;
+            targetEnd--;
+        }
+        final int common = Math.min(sourceEnd, targetEnd);
+        for (int i = start; i < common; i++) {
+            diffValues(path, i, source.get(i), target.get(i), differences);
+        }
+        for (int i = common; i < sourceEnd; i++) {
+            differences.add(new Difference(Type.REMOVED, pointer(path, i), source.get(i), null));
+        }
+        for (int i = common; i < targetEnd; i++) {
+            differences.add(new Difference(Type.ADDED, pointer(path, i), null, target.get(i)));
+        }
+    }
+
+    private static String pointer(String path, Object key) {
+        return (key instanceof final Integer index) ? (path + "/" + index) : (path + "/" + JsonPatch.escape(key.toString()));
+    }
+}
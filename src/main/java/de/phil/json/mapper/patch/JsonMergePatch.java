@@ -0,0 +1,168 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.patch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import de.phil.json.mapper.JsonMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JSON Merge Patch (RFC 7386): a map of changed values, <code>null</code> removing a value and maps changing maps.
+ * <p>
+ * Like {@link JsonPatch} the patch is applied in place and added values are copied into maps of the class the document
+ * is optimized for. Unlike other maps the patch is written with its <code>null</code> values.
+ */
+@JsonSerialize(using = JsonMergePatch.Serializer.class)
+public final class JsonMergePatch {
+
+    private final Map<String, Object> patch;
+
+    private JsonMergePatch(@NotNull Map<String, Object> patch) {
+        this.patch = patch;
+    }
+
+    /**
+     * Creates patch from a map.
+     *
+     * @param patch Map of changes. The map is not copied.
+     * @return patch.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static JsonMergePatch of(@NotNull Map<String, Object> patch) {
+        return new JsonMergePatch(patch);
+    }
+
+    /**
+     * Gets the changes.
+     *
+     * @return read-only map of changes.
+     */
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(patch);
+    }
+
+    /**
+     * Checks whether the patch has no changes.
+     *
+     * @return true if the patch changes nothing.
+     */
+    public boolean isEmpty() {
+        return patch.isEmpty();
+    }
+
+    /**
+     * Applies the patch to a map.
+     *
+     * @param target Map to change.
+     */
+    public void apply(@NotNull JsonMap target) {
+        merge(target, patch, JsonValues.optimizedClass(target));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void merge(@NotNull Map<String, Object> target, @NotNull Map<?, ?> patch, Class<? extends JsonMap> clazz) {
+        patch.forEach((key, value) -> {
+            final String name = key.toString();
+            if (value == null) {
+                target.remove(name);
+            } else if ((value instanceof final Map<?, ?> map) && (target.get(name) instanceof final Map<?, ?> targetMap)) {
+                merge((Map<String, Object>) targetMap, map, clazz);
+            } else {
+                // copying drops null values, like merging into an empty map
+                target.put(name, JsonValues.copy(value, clazz));
+            }
+        });
+    }
+
+    /**
+     * Creates a patch changing one map into another. Only changed values are contained in the patch.
+     * The values of the patch are not copied.
+     *
+     * @param source Map to change.
+     * @param target Map to create.
+     * @return patch.
+     */
+    public static JsonMergePatch diff(@NotNull Map<String, ?> source, @NotNull Map<String, ?> target) {
+        return new JsonMergePatch(diffMaps(source, target));
+    }
+
+    private static Map<String, Object> diffMaps(@NotNull Map<?, ?> source, @NotNull Map<?, ?> target) {
+        final Map<String, Object> patch = new LinkedHashMap<>();
+        source.forEach((key, value) -> {
+            if ((value != null) && (target.get(key) == null)) {
+                patch.put(key.toString(), null);
+            }
+        });
+        target.forEach((key, value) -> {
+            final Object sourceValue = source.get(key);
+            if ((value instanceof final Map<?, ?> targetMap) && (sourceValue instanceof final Map<?, ?> sourceMap)) {
+                if (JsonValues.sameFingerprint(sourceMap, targetMap)) {
+                    // unchanged subtree
+                    return;
+                }
+                final Map<String, Object> mapPatch = diffMaps(sourceMap, targetMap);
+                if (!mapPatch.isEmpty()) {
+                    patch.put(key.toString(), mapPatch);
+                }
+            } else if ((value != null) && !JsonValues.same(sourceValue, value)) {
+                patch.put(key.toString(), value);
+            }
+        });
+        return patch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof final JsonMergePatch mergePatch) && patch.equals(mergePatch.patch);
+    }
+
+    @Override
+    public int hashCode() {
+        return patch.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return patch.toString();
+    }
+
+    /**
+     * Writes the changes including <code>null</code> values, which are left out when writing other maps.
+     */
+    static final class Serializer extends StdSerializer<JsonMergePatch> {
+
+        Serializer() {
+            super(JsonMergePatch.class);
+        }
+
+        @Override
+        public void serialize(JsonMergePatch mergePatch, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(mergePatch.patch, gen, provider, provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS));
+        }
+
+        private static void write(@NotNull Map<?, ?> patch, @NotNull JsonGenerator gen, SerializerProvider provider, boolean sorted)
+                throws IOException {
+            gen.writeStartObject();
+            for (Map.Entry<?, ?> entry : (sorted ? new TreeMap<>(patch) : patch).entrySet()) {
+                gen.writeFieldName(entry.getKey().toString());
+                if (entry.getValue() instanceof final Map<?, ?> map) {
+                    write(map, gen, provider, sorted);
+                } else {
+                    provider.defaultSerializeValue(entry.getValue(), gen);
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+}
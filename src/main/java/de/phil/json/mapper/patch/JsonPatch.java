@@ -0,0 +1,451 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.patch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonPointer;
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.impl.JsonListImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Patch (RFC 6902): a list of operations changing a document.
+ * <p>
+ * A patch is written and read by {@link de.phil.json.mapper.JsonMapping} as the JSON array of its operations.
+ * Patches are applied in place, so unchanged parts of the document are not copied and stay optimized
+ * (see {@link JsonMap#optimize(Class)}); added values are copied into maps of the class the document is optimized for.
+ * As <code>null</code> values are not written, a missing <code>value</code> of an operation means <code>null</code>
+ * and {@link #diff(Map, Map)} treats <code>null</code> values like missing keys.
+ */
+public final class JsonPatch {
+
+    private final List<Operation> operations;
+
+    /**
+     * Creates patch.
+     *
+     * @param operations Operations.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public JsonPatch(@NotNull List<Operation> operations) {
+        this.operations = List.copyOf(operations);
+    }
+
+    /**
+     * Gets the operations.
+     *
+     * @return operations.
+     */
+    @JsonValue
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Checks whether the patch has no operations.
+     *
+     * @return true if the patch changes nothing.
+     */
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * Applies the patch to a map. Either all operations are applied or, if one fails, none.
+     *
+     * @param target Map to change.
+     * @throws IllegalArgumentException an operation failed, e.g. its path cannot be found or a test failed.
+     */
+    public void apply(@NotNull JsonMap target) throws IllegalArgumentException {
+        final Patcher patcher = new Patcher(target);
+        try {
+            operations.forEach(patcher::apply);
+        } catch (RuntimeException e) {
+            patcher.undo();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a patch changing one map into another. Only changed values are added or replaced,
+     * lists are compared element by element after skipping equal elements at their start and end.
+     * The values of the patch are not copied.
+     *
+     * @param source Map to change.
+     * @param target Map to create.
+     * @return patch.
+     */
+    public static JsonPatch diff(@NotNull Map<String, ?> source, @NotNull Map<String, ?> target) {
+        final List<Operation> operations = new ArrayList<>();
+        diffMaps("", source, target, operations);
+        return new JsonPatch(operations);
+    }
+
+    private static void diffMaps(String path, @NotNull Map<?, ?> source, @NotNull Map<?, ?> target, List<Operation> operations) {
+        source.forEach((key, value) -> {
+            if ((value != null) && (target.get(key) == null)) {
+                operations.add(Operation.remove(path + "/" + escape(key.toString())));
+            }
+        });
+        target.forEach((key, value) -> {
+            if (value != null) {
+                final String valuePath = path + "/" + escape(key.toString());
+                final Object sourceValue = source.get(key);
+                if (sourceValue == null) {
+                    operations.add(Operation.add(valuePath, value));
+                } else {
+                    diffValues(valuePath, sourceValue, value, operations);
+                }
+            }
+        });
+    }
+
+    private static void diffValues(String path, Object source, Object target, List<Operation> operations) {
+        if (JsonValues.sameFingerprint(source, target)) {
+            // unchanged subtree
+            return;
+        }
+        if ((source instanceof final Map<?, ?> sourceMap) && (target instanceof final Map<?, ?> targetMap)) {
+            diffMaps(path, sourceMap, targetMap, operations);
+        } else if ((source instanceof final List<?> sourceList) && (target instanceof final List<?> targetList)) {
+            diffLists(path, sourceList, targetList, operations);
+        } else if (!JsonValues.same(source, target)) {
+            operations.add(Operation.replace(path, target));
+        }
+    }
+
+    private static void diffLists(String path, @NotNull List<?> source, @NotNull List<?> target, List<Operation> operations) {
+        int start = 0;
+        int sourceEnd = source.size();
+        int targetEnd = target.size();
+        while ((start < sourceEnd) && (start < targetEnd) && JsonValues.same(source.get(start), target.get(start))) {
+            start++;
+        }
+        while ((sourceEnd > start) && (targetEnd > start) && JsonValues.same(source.get(sourceEnd - 1), target.get(targetEnd - 1))) {
+            sourceEnd--;
+            targetEnd--;
+        }
+        final int common = Math.min(sourceEnd, targetEnd);
+        for (int i = start; i < common; i++) {
+            diffValues(path + "/" + i, source.get(i), target.get(i), operations);
+        }
+        for (int i = sourceEnd - 1; i >= common; i--) {
+            operations.add(Operation.remove(path + "/" + i));
+        }
+        for (int i = common; i < targetEnd; i++) {
+            operations.add(Operation.add(path + "/" + i, target.get(i)));
+        }
+    }
+
+    /**
+     * Escapes a key for a JSON pointer.
+     *
+     * @param key Key.
+     * @return escaped key.
+     */
+    static String escape(@NotNull String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof final JsonPatch patch) && operations.equals(patch.operations);
+    }
+
+    @Override
+    public int hashCode() {
+        return operations.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return operations.toString();
+    }
+
+    /**
+     * Operation of a patch.
+     *
+     * @param op    Name of the operation: <code>add</code>, <code>remove</code>, <code>replace</code>,
+     *              <code>move</code>, <code>copy</code> or <code>test</code>.
+     * @param path  JSON pointer to the changed value.
+     * @param from  JSON pointer to the moved or copied value.
+     * @param value Added, replacing or expected value.
+     */
+    public record Operation(@NotNull String op, @NotNull String path, String from, Object value) {
+        private static final Set<String> OPS = Set.of("add", "remove", "replace", "move", "copy", "test");
+
+        /**
+         * Checks the operation.
+         *
+         * @throws IllegalArgumentException op is unknown or <code>from</code> is missing.
+         */
+        public Operation {
+            if (!OPS.contains(op)) {
+                throw new IllegalArgumentException("op=" + op + " is unknown");
+            }
+            if ((path == null) || (((op.equals("move")) || (op.equals("copy"))) && (from == null))) {
+                throw new IllegalArgumentException("op=" + op + " lacks path or from");
+            }
+        }
+
+        /**
+         * Creates <code>add</code>-operation.
+         *
+         * @param path  Path.
+         * @param value Value.
+         * @return operation.
+         */
+        public static Operation add(@NotNull String path, Object value) {
+            return new Operation("add", path, null, value);
+        }
+
+        /**
+         * Creates <code>remove</code>-operation.
+         *
+         * @param path Path.
+         * @return operation.
+         */
+        public static Operation remove(@NotNull String path) {
+            return new Operation("remove", path, null, null);
+        }
+
+        /**
+         * Creates <code>replace</code>-operation.
+         *
+         * @param path  Path.
+         * @param value Value.
+         * @return operation.
+         */
+        public static Operation replace(@NotNull String path, Object value) {
+            return new Operation("replace", path, null, value);
+        }
+
+        /**
+         * Creates <code>move</code>-operation.
+         *
+         * @param from Path of moved value.
+         * @param path Path.
+         * @return operation.
+         */
+        public static Operation move(@NotNull String from, @NotNull String path) {
+            return new Operation("move", path, from, null);
+        }
+
+        /**
+         * Creates <code>copy</code>-operation.
+         *
+         * @param from Path of copied value.
+         * @param path Path.
+         * @return operation.
+         */
+        public static Operation copy(@NotNull String from, @NotNull String path) {
+            return new Operation("copy", path, from, null);
+        }
+
+        /**
+         * Creates <code>test</code>-operation.
+         *
+         * @param path  Path.
+         * @param value Expected value.
+         * @return operation.
+         */
+        public static Operation test(@NotNull String path, Object value) {
+            return new Operation("test", path, null, value);
+        }
+    }
+
+    /**
+     * Applies operations to a map and remembers how to undo them.
+     */
+    private static final class Patcher {
+        private final JsonMap root;
+        private final Class<? extends JsonMap> clazz;
+        private final Deque<Runnable> undos = new ArrayDeque<>();
+
+        Patcher(@NotNull JsonMap root) {
+            this.root = root;
+            this.clazz = JsonValues.optimizedClass(root);
+        }
+
+        void apply(@NotNull Operation operation) {
+            final List<String> path = parse(operation.path());
+            switch (operation.op()) {
+                case "add" -> add(path, JsonValues.copy(operation.value(), clazz));
+                case "remove" -> remove(path);
+                case "replace" -> {
+                    remove(path);
+                    add(path, JsonValues.copy(operation.value(), clazz));
+                }
+                case "move" -> {
+                    final List<String> from = parse(operation.from());
+                    if ((from.size() < path.size()) && from.equals(path.subList(0, from.size()))) {
+                        throw new IllegalArgumentException("path=" + operation.from() + " cannot be moved into itself");
+                    }
+                    add(path, remove(from));
+                }
+                case "copy" -> add(path, JsonValues.copy(get(parse(operation.from())), clazz));
+                default -> {
+                    if (!JsonValues.equal(get(path), operation.value())) {
+                        throw new IllegalArgumentException("test failed at path=" + operation.path());
+                    }
+                }
+            }
+        }
+
+        void undo() {
+            while (!undos.isEmpty()) {
+                undos.pop().run();
+            }
+        }
+
+        private Object get(@NotNull List<String> path) {
+            Object value = root;
+            for (int i = 0; i < path.size(); i++) {
+                value = child(value, path, i);
+            }
+            return value;
+        }
+
+        private void add(@NotNull List<String> path, Object value) {
+            if (path.isEmpty()) {
+                replaceRoot(value);
+                return;
+            }
+            final Object parent = get(path.subList(0, path.size() - 1));
+            final String key = path.get(path.size() - 1);
+            if (parent instanceof final Map<?, ?> map) {
+                put(castToMap(map), key, value);
+            } else if (parent instanceof final List<?> list) {
+                final int index = key.equals("-") ? list.size() : index(list, path, path.size() - 1, list.size());
+                final List<Object> elements = JsonValues.castToObjects(list);
+                elements.add(index, value);
+                undos.push(() -> elements.remove(index));
+                listChanged(path, elements);
+            } else {
+                throw new IllegalArgumentException("path=" + toString(path) + " cannot be found");
+            }
+        }
+
+        private Object remove(@NotNull List<String> path) {
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("the document cannot be removed");
+            }
+            final Object parent = get(path.subList(0, path.size() - 1));
+            final Object value = child(parent, path, path.size() - 1);
+            final String key = path.get(path.size() - 1);
+            if (parent instanceof final Map<?, ?> map) {
+                final Map<String, Object> values = castToMap(map);
+                values.remove(key);
+                undos.push(() -> values.put(key, value));
+            } else {
+                final List<Object> elements = JsonValues.castToObjects((List<?>) parent);
+                final int index = Integer.parseInt(key);
+                elements.remove(index);
+                undos.push(() -> elements.add(index, value));
+                listChanged(path, elements);
+            }
+            return value;
+        }
+
+        private void put(@NotNull Map<String, Object> map, String key, Object value) {
+            final boolean existed = map.containsKey(key);
+            final Object previous = map.put(key, value);
+            undos.push(() -> {
+                if (existed) {
+                    map.put(key, previous);
+                } else {
+                    map.remove(key);
+                }
+            });
+        }
+
+        private void replaceRoot(Object value) {
+            if (!(value instanceof final Map<?, ?> map)) {
+                throw new IllegalArgumentException("the document can only be replaced by a map");
+            }
+            final Map<String, Object> previous = new LinkedHashMap<>(root);
+            root.clear();
+            root.putAll(castToMap(map));
+            undos.push(() -> {
+                root.clear();
+                root.putAll(previous);
+            });
+        }
+
+        /**
+         * Keeps lists of maps {@link JsonList}s and other lists plain lists, like {@link de.phil.json.mapper.JsonMapping}
+         * reads them, by replacing a changed list if necessary.
+         */
+        private void listChanged(@NotNull List<String> path, @NotNull List<?> list) {
+            final boolean listOfMaps = JsonValues.isListOfMaps(list);
+            if ((list instanceof JsonList) == listOfMaps) {
+                return;
+            }
+            final List<Object> replacement = listOfMaps ? JsonValues.castToObjects(new JsonListImpl()) : new ArrayList<>(list.size());
+            replacement.addAll(list);
+            final List<String> listPath = path.subList(0, path.size() - 1);
+            final Object parent = get(listPath.subList(0, listPath.size() - 1));
+            final String key = listPath.get(listPath.size() - 1);
+            if (parent instanceof final Map<?, ?> map) {
+                put(castToMap(map), key, replacement);
+            } else {
+                final List<Object> elements = JsonValues.castToObjects((List<?>) parent);
+                final int index = Integer.parseInt(key);
+                elements.set(index, replacement);
+                undos.push(() -> elements.set(index, list));
+            }
+        }
+
+        private static Object child(Object parent, @NotNull List<String> path, int segment) {
+            final String key = path.get(segment);
+            if ((parent instanceof final Map<?, ?> map) && map.containsKey(key)) {
+                return map.get(key);
+            }
+            if (parent instanceof final List<?> list) {
+                return list.get(index(list, path, segment, list.size() - 1));
+            }
+            throw new IllegalArgumentException("path=" + toString(path) + " cannot be found at segment " + segment);
+        }
+
+        private static int index(@NotNull List<?> list, @NotNull List<String> path, int segment, int maxIndex) {
+            final String key = path.get(segment);
+            final boolean valid = !key.isEmpty() && (key.length() <= 9) && key.chars().allMatch(Character::isDigit)
+                    && ((key.length() == 1) || (key.charAt(0) != '0'));
+            final int index = valid ? Integer.parseInt(key) : -1;
+            if ((index < 0) || (index > maxIndex)) {
+                throw new IllegalArgumentException("path=" + toString(path) + " has invalid index at segment " + segment
+                                                           + " of list with size " + list.size());
+            }
+            return index;
+        }
+
+        private static List<String> parse(@NotNull String path) {
+            final List<String> segments = new ArrayList<>();
+            for (JsonPointer pointer = JsonPointer.compile(path); !pointer.matches(); pointer = pointer.tail()) {
+                segments.add(pointer.getMatchingProperty());
+            }
+            return segments;
+        }
+
+        private static String toString(@NotNull List<String> path) {
+            final StringBuilder builder = new StringBuilder();
+            path.forEach(segment -> builder.append('/').append(escape(segment)));
+            return builder.toString();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> castToMap(Map<?, ?> map) {
+            return (Map<String, Object>) map;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.mapper.patch;
+
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import de.phil.json.mapper.impl.JsonListImpl;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for comparing and copying the values of patches.
+ */
+final class JsonValues {
+
+    private JsonValues() {
+    }
+
+    /**
+     * Gets the class the maps of a tree are optimized for.
+     *
+     * @param root Root of the tree.
+     * @return class of the root if it is (lazily) optimized for it, otherwise {@link JsonMapImpl}.
+     */
+    @SuppressWarnings("unchecked")
+    static Class<? extends JsonMap> optimizedClass(@NotNull JsonMap root) {
+        final Class<? extends JsonMap> clazz = root.getClass();
+        return (root.isOptimizedFor(clazz) || root.isLazilyOptimizedFor(clazz)) ? clazz : JsonMapImpl.class;
+    }
+
+    /**
+     * Copies a value deeply the way {@link JsonMapping} reads it: maps become optimized maps of the given class
+     * without <code>null</code> values, non-empty lists of maps become {@link JsonListImpl}s.
+     *
+     * @param value Value.
+     * @param clazz Class of maps.
+     * @return copy.
+     */
+    static Object copy(Object value, @NotNull Class<? extends JsonMap> clazz) {
+        if (value instanceof final Map<?, ?> map) {
+            return JsonMapping.copyValue(map, clazz);
+        }
+        if (value instanceof final List<?> list) {
+            final List<Object> copy = isListOfMaps(list) ? castToObjects(new JsonListImpl()) : new ArrayList<>(list.size());
+            list.forEach(element -> copy.add(copy(element, clazz)));
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether a list should be a {@link de.phil.json.mapper.JsonList}: it is not empty and contains maps only.
+     *
+     * @param list List.
+     * @return true for lists of maps.
+     */
+    static boolean isListOfMaps(@NotNull List<?> list) {
+        if (list.isEmpty()) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!(element instanceof Map)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Casts a list to add any values.
+     *
+     * @param list List.
+     * @return same list.
+     */
+    @SuppressWarnings("unchecked")
+    static List<Object> castToObjects(List<?> list) {
+        return (List<Object>) list;
+    }
+
+    /**
+     * Compares values as JSON (see <code>test</code> of RFC 6902): numbers by their value, maps ignoring
+     * <code>null</code> values, as they are not written. The content is always compared, fingerprints may collide.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return true if the values are equal.
+     */
+    static boolean equal(Object a, Object b) {
+        return equal(a, b, true, false);
+    }
+
+    /**
+     * Compares values like {@link #equal(Object, Object)}, but integers are not equal to decimal numbers,
+     * so values are only the same if they are written alike. Subtrees with equal cached fingerprints are
+     * taken as the same without comparing their content (see {@link #sameFingerprint(Object, Object)}).
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return true if the values are the same.
+     */
+    static boolean same(Object a, Object b) {
+        return equal(a, b, false, true);
+    }
+
+    /**
+     * Checks whether values are maps or lists caching their fingerprints (see {@link JsonMap#isFingerprintCached()})
+     * with equal fingerprints, so they are the same without comparing their content.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return true if the fingerprints are cached and equal.
+     */
+    static boolean sameFingerprint(Object a, Object b) {
+        return isFingerprintCached(a) && isFingerprintCached(b) && (JsonFingerprint.of(a) == JsonFingerprint.of(b));
+    }
+
+    private static boolean isFingerprintCached(Object value) {
+        return ((value instanceof final JsonMap map) && map.isFingerprintCached())
+                || ((value instanceof final JsonList list) && list.isFingerprintCached());
+    }
+
+    private static boolean equal(Object a, Object b, boolean numerically, boolean byFingerprint) {
+        if ((a == b) || (byFingerprint && sameFingerprint(a, b))) {
+            return true;
+        }
+        if ((a instanceof final Number numberA) && (b instanceof final Number numberB)) {
+            if (a.getClass() == b.getClass()) {
+                return a.equals(b);
+            }
+            if (!numerically && (isInteger(numberA) != isInteger(numberB))) {
+                return false;
+            }
+            final BigDecimal decimalA = toBigDecimal(numberA);
+            final BigDecimal decimalB = toBigDecimal(numberB);
+            return (decimalA != null) && (decimalB != null) ? (decimalA.compareTo(decimalB) == 0) : a.equals(b);
+        }
+        if ((a instanceof final Map<?, ?> mapA) && (b instanceof final Map<?, ?> mapB)) {
+            return containsAll(mapA, mapB, numerically, byFingerprint) && containsAll(mapB, mapA, numerically, byFingerprint);
+        }
+        if ((a instanceof final List<?> listA) && (b instanceof final List<?> listB)) {
+            if (listA.size() != listB.size()) {
+                return false;
+            }
+            for (int i = 0; i < listA.size(); i++) {
+                if (!equal(listA.get(i), listB.get(i), numerically, byFingerprint)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return (a != null) && a.equals(b);
+    }
+
+    private static boolean containsAll(@NotNull Map<?, ?> map, @NotNull Map<?, ?> other, boolean numerically, boolean byFingerprint) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if ((entry.getValue() != null) && !equal(entry.getValue(), other.get(entry.getKey()), numerically, byFingerprint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInteger(@NotNull Number number) {
+        return (number instanceof Integer) || (number instanceof Long) || (number instanceof Short) || (number instanceof Byte)
+                || (number instanceof BigInteger);
+    }
+
+    private static BigDecimal toBigDecimal(@NotNull Number number) {
+        if (number instanceof final BigInteger bigInteger) {
+            return new BigDecimal(bigInteger);
+        }
+        if (isInteger(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        if (number instanceof final BigDecimal bigDecimal) {
+            return bigDecimal;
+        }
+        final double value = number.doubleValue();
+        return Double.isFinite(value) ? BigDecimal.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,64 @@
+// Copyright (c) by Philipp Meißner 2022.
+
+package de.phil.json.typeconverter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts strings to enum constants by name, optionally ignoring case and accepting aliases.
+ * The lookup tables are built once from the enum constants, no reflection is used while converting.
+ *
+ * @param <E> Type of enum.
+ */
+class EnumConverter<E extends Enum<E>> implements Function<Object, E> {
+
+    private final Class<E> enumClass;
+    private final Map<String, E> constants = new HashMap<>();
+    /**
+     * Constants by lower case name, <code>null</code> if case matters.
+     */
+    private final Map<String, E> lowerCaseConstants;
+
+    /**
+     * Creates converter.
+     *
+     * @param enumClass  Enum class.
+     * @param ignoreCase true if names are matched case-insensitively.
+     * @param aliases    Additional names of constants.
+     */
+    EnumConverter(@NotNull Class<E> enumClass, boolean ignoreCase, @NotNull Map<String, E> aliases) {
+        this.enumClass = enumClass;
+        for (E constant : enumClass.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+        }
+        aliases.forEach(constants::putIfAbsent);
+        if (ignoreCase) {
+            lowerCaseConstants = new HashMap<>();
+            constants.forEach((name, constant) -> lowerCaseConstants.putIfAbsent(name.toLowerCase(Locale.ROOT), constant));
+        } else {
+            lowerCaseConstants = null;
+        }
+    }
+
+    @Override
+    public E apply(Object value) {
+        if (value instanceof final String name) {
+            final E constant = constants.get(name);
+            if (constant != null) {
+                return constant;
+            }
+            if (lowerCaseConstants != null) {
+                final E lowerCaseConstant = lowerCaseConstants.get(name.toLowerCase(Locale.ROOT));
+                if (lowerCaseConstant != null) {
+                    return lowerCaseConstant;
+                }
+            }
+        }
+        throw new TypeConversionException(value, enumClass);
+    }
+}
@@ -22,7 +22,18 @@ enum TypeConversionInfo {
         if (value == null) {
             return NULL;
         }
-        if (clazz.isAssignableFrom(value.getClass())) {
+        return of(value.getClass(), clazz);
+    }
+
+    /**
+     * Gets informationen about if and how values of a class can be converted.
+     *
+     * @param valueClass  Class of values to convert.
+     * @param clazz       Class to convert to.
+     * @return Informationen zur Konvertierung.
+     */
+    public static <T> TypeConversionInfo of(Class<?> valueClass, Class<T> clazz) {
+        if (clazz.isAssignableFrom(valueClass)) {
             return CAST;
         }
         return TypeConverter.canConvertTo(clazz)
@@ -2,10 +2,14 @@
 
 package de.phil.json.typeconverter;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.*;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -15,6 +19,15 @@ import java.util.stream.Collectors;
 public class TypeConverter {
     private static final TypeConverterMap CONVERTERS = new TypeConverterMap();
     private static final TypeConverterMap DEFAULT_CONVERTERS = new TypeConverterMap();
+    /**
+     * Converters specialized for a source class, by target class and source class.
+     * They are used as long as the default converter for the target class is registered.
+     */
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, ?>>> PAIR_CONVERTERS = new ConcurrentHashMap<>();
+    /**
+     * Resolved converters by source class and target class. Replaced whenever a registration changes.
+     */
+    private static volatile ClassValue<Map<Class<?>, Function<Object, ?>>> dispatchCache = newDispatchCache();
 
     static {
         // NB: usually no explicit registration for enums needed as they are automatically created and registered if needed
@@ -89,6 +102,20 @@ public class TypeConverter {
         registerDefault(OffsetDateTime.class, value -> OffsetDateTime.parse((String) value));
         registerDefault(ZonedDateTime.class, value -> ZonedDateTime.parse((String) value));
         registerDefault(Instant.class, value -> Instant.parse((String) value));
+
+        // specialized converters for frequent pairs, same results as the standard converters
+        registerPair(String.class, Boolean.class, value -> Boolean.valueOf((String) value));
+        registerPair(String.class, Integer.class, value -> Integer.valueOf((String) value));
+        registerPair(Integer.class, Long.class, value -> Long.valueOf((Integer) value));
+        registerPair(String.class, Long.class, value -> Long.valueOf((String) value));
+        registerPair(Integer.class, Double.class, value -> Double.valueOf((Integer) value));
+        registerPair(Long.class, Double.class, value -> Double.valueOf((Long) value));
+        registerPair(String.class, Double.class, value -> Double.valueOf((String) value));
+        registerPair(Integer.class, BigInteger.class, value -> BigInteger.valueOf((Integer) value));
+        registerPair(Long.class, BigInteger.class, value -> BigInteger.valueOf((Long) value));
+        registerPair(Integer.class, BigDecimal.class, value -> BigDecimal.valueOf((Integer) value));
+        registerPair(Long.class, BigDecimal.class, value -> BigDecimal.valueOf((Long) value));
+        registerPair(Double.class, BigDecimal.class, value -> BigDecimal.valueOf((Double) value));
     }
 
     /**
@@ -101,6 +128,17 @@ public class TypeConverter {
         CONVERTERS.put(clazz, converter);
     }
 
+    /**
+     * Registers a converter specialized for a source class.
+     */
+    private static <T> void registerPair(Class<?> fromClass, Class<T> toClass, Function<Object, T> converter) {
+        // parsing strings may fail
+        final Function<Object, ?> pairConverter = fromClass == String.class
+                ? TypeConverterMap.converterWrapper(toClass, converter)
+                : converter;
+        PAIR_CONVERTERS.computeIfAbsent(toClass, x -> new ConcurrentHashMap<>()).put(fromClass, pairConverter);
+    }
+
     /**
      * Registers a converter.
      * @param clazz  Class to convert to.
@@ -109,6 +147,28 @@ public class TypeConverter {
      */
     public static <T> void register(Class<T> clazz, Function<Object, T> converter) {
         CONVERTERS.put(clazz, converter);
+        registrationChanged(clazz);
+    }
+
+    /**
+     * Registers a converter for an enum, replacing the converter created on first use.
+     * @param enumClass  Enum class.
+     * @param ignoreCase true if names are matched case-insensitively.
+     * @param <E> Type of enum.
+     */
+    public static <E extends Enum<E>> void registerEnum(Class<E> enumClass, boolean ignoreCase) {
+        registerEnum(enumClass, ignoreCase, Map.of());
+    }
+
+    /**
+     * Registers a converter for an enum, replacing the converter created on first use.
+     * @param enumClass  Enum class.
+     * @param ignoreCase true if names and aliases are matched case-insensitively.
+     * @param aliases    Additional names of constants, e.g. legacy names.
+     * @param <E> Type of enum.
+     */
+    public static <E extends Enum<E>> void registerEnum(Class<E> enumClass, boolean ignoreCase, Map<String, E> aliases) {
+        register(enumClass, new EnumConverter<>(enumClass, ignoreCase, aliases));
     }
 
     /**
@@ -117,6 +177,7 @@ public class TypeConverter {
      */
     public static void unregister(Class<?> clazz) {
         CONVERTERS.remove(clazz);
+        registrationChanged(clazz);
     }
 
     /**
@@ -125,7 +186,23 @@ public class TypeConverter {
      * @param converter  Converter.
      */
     public static void registerIfAbsent(Class<?> clazz, Function<Object, ?> converter) {
-        CONVERTERS.computeIfAbsent(clazz, x -> converter);
+        if (CONVERTERS.putIfAbsent(clazz, converter) == null) {
+            registrationChanged(clazz);
+        }
+    }
+
+    private static void registrationChanged(Class<?> clazz) {
+        PAIR_CONVERTERS.remove(clazz);
+        dispatchCache = newDispatchCache();
+    }
+
+    private static ClassValue<Map<Class<?>, Function<Object, ?>>> newDispatchCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<Class<?>, Function<Object, ?>> computeValue(@NotNull Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
     }
 
     /**
@@ -150,7 +227,7 @@ public class TypeConverter {
      * @return true if conversion is possible.
      */
     public static boolean canConvertTo(Class<?> clazz) {
-        return CONVERTERS.containsKey(clazz) || ((clazz != null) && clazz.isEnum());
+        return (clazz != null) && (CONVERTERS.containsKey(clazz) || clazz.isEnum());
     }
 
     /**
@@ -162,19 +239,127 @@ public class TypeConverter {
      */
     @SuppressWarnings("unchecked")
     public static <T> T convert(Object value, Class<T> toClass) {
-        return switch (TypeConversionInfo.of(value, toClass)) {
-            case NULL -> null;
-            case CAST -> (T) value;
-            case CONVERT -> (T) CONVERTERS.get(toClass).apply(value);
-            default -> {
-                final String registrations = TypeConverter.getRegistrations()
-                                                          .stream()
-                                                          .map(Class::getSimpleName)
-                                                          .sorted()
-                                                          .collect(Collectors.joining(", "));
-                throw new TypeConversionException("Converter missing: ", value, toClass, ". Converters are registered for " + registrations);
+        if (value == null) {
+            return null;
+        }
+        final Map<Class<?>, Function<Object, ?>> converters = dispatchCache.get(value.getClass());
+        Function<Object, ?> converter = converters.get(toClass);
+        if (converter == null) {
+            converter = resolve(value.getClass(), toClass);
+            converters.putIfAbsent(toClass, converter);
+        }
+        return (T) converter.apply(value);
+    }
+
+    /**
+     * Converts a value into an <code>int</code> without boxing {@link Integer}s.
+     * Other values are converted by {@link #convert(Object, Class)}.
+     * @param value         Value to convert.
+     * @param defaultValue  Value if <code>value</code> is <code>null</code>.
+     * @return Converted value.
+     */
+    public static int toInt(Object value, int defaultValue) {
+        if (value instanceof final Integer i) {
+            return i;
+        }
+        return (value == null) ? defaultValue : convert(value, Integer.class);
+    }
+
+    /**
+     * Converts a value into a <code>long</code> without boxing {@link Long}s and {@link Integer}s.
+     * Other values are converted by {@link #convert(Object, Class)}.
+     * @param value         Value to convert.
+     * @param defaultValue  Value if <code>value</code> is <code>null</code>.
+     * @return Converted value.
+     */
+    public static long toLong(Object value, long defaultValue) {
+        if (value instanceof final Long l) {
+            return l;
+        }
+        if (value instanceof final Integer i) {
+            return i;
+        }
+        return (value == null) ? defaultValue : convert(value, Long.class);
+    }
+
+    /**
+     * Converts a value into a <code>double</code> without boxing {@link Double}s, {@link Long}s and {@link Integer}s.
+     * Other values are converted by {@link #convert(Object, Class)}.
+     * @param value         Value to convert.
+     * @param defaultValue  Value if <code>value</code> is <code>null</code>.
+     * @return Converted value.
+     */
+    public static double toDouble(Object value, double defaultValue) {
+        if (value instanceof final Double d) {
+            return d;
+        }
+        if (value instanceof final Integer i) {
+            return i;
+        }
+        if (value instanceof final Long l) {
+            return l;
+        }
+        return (value == null) ? defaultValue : convert(value, Double.class);
+    }
+
+    /**
+     * Converts a value into a <code>boolean</code>.
+     * Values other than {@link Boolean}s are converted by {@link #convert(Object, Class)}.
+     * @param value         Value to convert.
+     * @param defaultValue  Value if <code>value</code> is <code>null</code>.
+     * @return Converted value.
+     */
+    public static boolean toBoolean(Object value, boolean defaultValue) {
+        if (value instanceof final Boolean b) {
+            return b;
+        }
+        return (value == null) ? defaultValue : convert(value, Boolean.class);
+    }
+
+    /**
+     * Resolves the converter for a pair of classes.
+     * @param fromClass  Class of values.
+     * @param toClass    Class to convert to.
+     * @return Converter, throws {@link TypeConversionException} if no converter is registered.
+     */
+    private static Function<Object, ?> resolve(Class<?> fromClass, Class<?> toClass) {
+        return switch (TypeConversionInfo.of(fromClass, toClass)) {
+            case CAST -> Function.identity();
+            case CONVERT -> {
+                final Function<Object, ?> converter = getConverter(toClass);
+                if (converter == null) {
+                    // the converter has been unregistered in the meantime
+                    yield missingConverter(toClass);
+                }
+                final Function<Object, ?> pairConverter = PAIR_CONVERTERS.getOrDefault(toClass, Map.of()).get(fromClass);
+                yield (pairConverter != null) ? pairConverter : converter;
             }
+            default -> missingConverter(toClass);
+        };
+    }
+
+    private static Function<Object, ?> missingConverter(Class<?> toClass) {
+        return value -> {
+            throw converterMissing(value, toClass);
         };
     }
 
+    /**
+     * Gets the registered converter.
+     * @param toClass  Class to convert to.
+     * @return Converter or <code>null</code> if no converter is registered.
+     */
+    static Function<Object, ?> getConverter(Class<?> toClass) {
+        return CONVERTERS.getConverter(toClass);
+    }
+
+    private static TypeConversionException converterMissing(Object value, Class<?> toClass) {
+        final String registrations = TypeConverter.getRegistrations()
+                                                  .stream()
+                                                  .map(Class::getSimpleName)
+                                                  .sorted()
+                                                  .collect(Collectors.joining(", "));
+        return new TypeConversionException("Converter missing: ", value, toClass, ". Converters are registered for " + registrations);
+    }
+
 }
@@ -2,33 +2,47 @@
 
 package de.phil.json.typeconverter;
 
-import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
  * Map for Type Converters.
+ * <p>
+ * The map is concurrent, lookups don't lock. Converters are wrapped so that they throw {@link TypeConversionException}s.
  */
-class TypeConverterMap extends HashMap<Class<?>, Function<Object, ?>> {
+class TypeConverterMap extends ConcurrentHashMap<Class<?>, Function<Object, ?>> {
     @Override
-    public Function<Object, ?> put(Class<?> key, Function<Object, ?> value) {
+    public Function<Object, ?> put(@NotNull Class<?> key, @NotNull Function<Object, ?> value) {
         return super.put(key, converterWrapper(key, value));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Function<Object, ?> get(Object key) {
-        if (!containsKey(key) && (key instanceof Class<?>) && ((Class<?>) key).isEnum()) {
-            put((Class<?>) key, converter((Class<Enum<?>>) key));
+    public Function<Object, ?> putIfAbsent(@NotNull Class<?> key, @NotNull Function<Object, ?> value) {
+        final Function<Object, ?> converter = super.get(key);
+        return (converter != null) ? converter : super.putIfAbsent(key, converterWrapper(key, value));
+    }
+
+    /**
+     * Gets the converter for the given class. Converters for enums are created and registered atomically on first use.
+     *
+     * @param clazz Class to convert to.
+     * @return converter or <code>null</code> if none is registered.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Function<Object, ?> getConverter(Class<?> clazz) {
+        final Function<Object, ?> converter = get(clazz);
+        if ((converter != null) || !clazz.isEnum()) {
+            return converter;
         }
-        return super.get(key);
+        // enum converters throw TypeConversionExceptions only, so they need no wrapper
+        return computeIfAbsent(clazz, key -> new EnumConverter((Class) key, false, Map.of()));
     }
 
     @NotNull
-    private Function<Object, Object> converterWrapper(Class<?> key, Function<Object, ?> value) {
+    static Function<Object, Object> converterWrapper(Class<?> key, Function<Object, ?> value) {
         return o -> {
             try {
                 return value.apply(o);
@@ -40,19 +54,4 @@ class TypeConverterMap extends HashMap<Class<?>, Function<Object, ?>> {
         };
     }
 
-    @SuppressWarnings("RedundantCast")
-    @SneakyThrows
-    @NotNull
-    private static Function<Object, Object> converter(Class<Enum<?>> enumClass) {
-        final Method valueOf = enumClass.getDeclaredMethod("valueOf", String.class);
-        valueOf.setAccessible(true);
-        return o -> {
-            try {
-                return valueOf.invoke(enumClass, (String) o);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        };
-    }
-
 }
@@ -1,12 +1,15 @@
 package de.phil.json.mapper;
 
+import de.phil.json.mapper.impl.JsonListImpl;
 import de.phil.json.mapper.impl.JsonMapImpl;
 import lombok.SneakyThrows;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -60,6 +63,80 @@ class JsonListTest {
                   .hasMessageContaining("key=bingo cannot be found");
     }
 
+    @Test
+    void canGetByIndexedProperty() {
+        cars.indexBy("name").indexBy("color");
+        assertThat(cars.get("name", "mercedes").getAsString("name")).isEqualTo("mercedes");
+        assertThatThrownBy(() -> cars.get("color", "pale blue"))
+                  .isInstanceOf(IllegalArgumentException.class)
+                  .hasMessageContaining("key=color not unique");
+        assertThatThrownBy(() -> cars.get("name", "trabant"))
+                  .isInstanceOf(IllegalArgumentException.class)
+                  .hasMessageContaining("key=name cannot be found");
+    }
+
+    @Test
+    void indexFollowsChangesOfList() {
+        cars.indexBy("name");
+        final JsonMap mercedes = cars.get("name", "mercedes");
+        cars.remove(mercedes);
+        assertThatThrownBy(() -> cars.get("name", "mercedes")).isInstanceOf(IllegalArgumentException.class);
+        cars.add(mercedes);
+        assertThat(cars.get("name", "mercedes")).isSameAs(mercedes);
+        final JsonMap trabant = new JsonMapImpl(Map.of("name", "trabant"));
+        cars.set(cars.indexOf(mercedes), trabant);
+        assertThat(cars.get("name", "trabant")).isSameAs(trabant);
+        assertThatThrownBy(() -> cars.get("name", "mercedes")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void indexFollowsChangesOfMaps() {
+        cars.indexBy("name");
+        final JsonMap mercedes = cars.get("name", "mercedes");
+        mercedes.put("name", "maybach");
+        assertThat(cars.get("name", "maybach")).isSameAs(mercedes);
+        assertThatThrownBy(() -> cars.get("name", "mercedes")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mapsDoNotKeepIndexingListsAlive() throws InterruptedException {
+        final JsonMap mercedes = cars.get("name", "mercedes");
+        final WeakReference<JsonList> index = indexedList(mercedes);
+        for (int i = 0; (i < 50) && (index.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(index.get()).isNull();
+        mercedes.put("name", "maybach");
+        assertThat(mercedes.getAsString("name")).isEqualTo("maybach");
+    }
+
+    @Test
+    void canFindAll() {
+        assertThat(cars.findAll("color", "pale blue")).hasSize(2);
+        cars.indexBy("color");
+        assertThat(cars.findAll("color", "pale blue")).hasSize(2);
+        assertThat(cars.findAll("color", "pink")).isEmpty();
+    }
+
+    @Test
+    void canMapToPrimitives() {
+        final JsonList list = JsonMapping.readJson("{\"l\":[{\"v\":1},{\"v\":12345678901},{\"v\":\"3\"},{}]}", JsonMapImpl.class)
+                                         .getAsJsonList("l");
+        assertThat(list.mapToLong("v", 0).sum()).isEqualTo(12345678905L);
+        assertThat(list.mapToDouble("v", 0.5).toArray()).containsExactly(1.0, 12345678901.0, 3.0, 0.5);
+        assertThat(list.subList(2, 4).stream().mapToInt(jm -> jm.getInt("v", 0)).sum()).isEqualTo(3);
+        assertThat(JsonMapping.readJson("{\"l\":[{\"v\":1},{\"v\":2}]}", JsonMapImpl.class).getAsJsonList("l").mapToInt("v", 0).sum())
+                  .isEqualTo(3);
+    }
+
+    private static WeakReference<JsonList> indexedList(JsonMap jsonMap) {
+        final JsonList list = new JsonListImpl();
+        list.add(jsonMap);
+        assertThat(list.indexBy("name").get("name", jsonMap.getAsString("name"))).isSameAs(jsonMap);
+        return new WeakReference<>(list);
+    }
+
     @SneakyThrows
     private JsonList givenJsonMapWithCars() {
         final InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
@@ -0,0 +1,123 @@
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JsonMapIterator}.
+ */
+class JsonMapIteratorTest {
+
+    @Test
+    void canStreamCarsFromYaml() throws IOException {
+        try (InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
+             Stream<JsonMapImpl> cars = JsonMapping.iterateYaml(yamlStream, "/cars", JsonMapImpl.class).stream()) {
+            final List<JsonMapImpl> filteredCars = cars.filter(jm -> jm.listContains("extras", "horn"))
+                                                       .filter(jm -> jm.is("color", "pale blue"))
+                                                       .collect(Collectors.toList());
+            assertThat(filteredCars).hasSize(1);
+            assertThat(filteredCars.get(0).getAs("price", BigInteger.class)).isEqualTo(new BigInteger("370000000000000000"));
+        }
+    }
+
+    @Test
+    void mapsAreOptimized() throws IOException {
+        try (InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
+             JsonMapIterator<JsonMapImpl> cars = JsonMapping.iterateYaml(yamlStream, "/cars", JsonMapImpl.class)) {
+            cars.next();
+            cars.next();
+            final JsonMapImpl mercedes = cars.next();
+            assertThat(mercedes.isOptimizedFor(JsonMapImpl.class)).isTrue();
+            assertThat(mercedes.getAsMap("mapOfMaps").getAsMap("map1").getAsString("b")).isEqualTo("B");
+            assertThat(cars.hasNext()).isTrue();
+        }
+    }
+
+    @Test
+    void canIterateNestedAndTopLevelArrays() {
+        final String json = "{\"a\": {\"skipped\": [1, 2], \"b\": [{\"x\": 1}, {\"x\": 2}]}}";
+        try (JsonMapIterator<JsonMapImpl> maps = JsonMapping.iterateJson(stream(json), "/a/b", JsonMapImpl.class)) {
+            assertThat(maps.stream().map(jm -> jm.getAs("x", Integer.class))).containsExactly(1, 2);
+        }
+        try (JsonMapIterator<JsonMapImpl> maps = JsonMapping.iterateJson(stream("[{\"x\": 1}, {\"x\": 2}]"), "", JsonMapImpl.class)) {
+            assertThat(maps.stream().map(jm -> jm.getAs("x", Integer.class))).containsExactly(1, 2);
+        }
+        try (JsonMapIterator<JsonMapImpl> maps = JsonMapping.iterateJson(stream("{\"a\": [[], [{\"x\": 1}]]}"), "/a/1", JsonMapImpl.class)) {
+            assertThat(maps.stream().map(jm -> jm.getAs("x", Integer.class))).containsExactly(1);
+        }
+    }
+
+    @Test
+    void keepsNullElementsOfArrays() {
+        try (JsonMapIterator<JsonMapImpl> maps = JsonMapping.iterateJson(stream("[{\"x\": 1}, null, {\"x\": 3}]"), "", JsonMapImpl.class)) {
+            assertThat(maps.next().getAs("x", Integer.class)).isEqualTo(1);
+            assertThat(maps.hasNext()).isTrue();
+            assertThat(maps.next()).isNull();
+            assertThat(maps.next().getAs("x", Integer.class)).isEqualTo(3);
+            assertThat(maps.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void emptyArrayHasNoMaps() {
+        try (JsonMapIterator<JsonMapImpl> maps = JsonMapping.iterateJson(stream("{\"a\": []}"), "/a", JsonMapImpl.class)) {
+            assertThat(maps.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void throwsExceptionForMissingPath() {
+        assertThatThrownBy(() -> JsonMapping.iterateJson(stream("{\"a\": [{}]}"), "/b", JsonMapImpl.class))
+                  .isInstanceOf(IllegalArgumentException.class)
+                  .hasMessageContaining("path=/b cannot be found");
+        assertThatThrownBy(() -> JsonMapping.iterateJson(stream("{\"a\": [{}]}"), "/a/1", JsonMapImpl.class))
+                  .isInstanceOf(IllegalArgumentException.class)
+                  .hasMessageContaining("path=/a/1 cannot be found");
+    }
+
+    @Test
+    void throwsExceptionIfPathIsNoArray() {
+        assertThatThrownBy(() -> JsonMapping.iterateJson(stream("{\"a\": {}}"), "/a", JsonMapImpl.class))
+                  .isInstanceOf(IllegalArgumentException.class)
+                  .hasMessageContaining("path=/a is not an array");
+    }
+
+    @Test
+    void canIterateYamlDocuments() {
+        final String yaml = """
+                kind: Deployment
+                metadata:
+                  name: audi
+                ---
+                kind: Service
+                metadata:
+                  name: porsche
+                ---
+                ---
+                kind: Service
+                metadata:
+                  name: mercedes
+                """;
+        try (JsonMapIterator<JsonMapImpl> documents = JsonMapping.iterateYamlDocuments(stream(yaml), JsonMapImpl.class)) {
+            assertThat(documents.stream()
+                                .filter(jm -> jm.is("kind", "Service"))
+                                .map(jm -> jm.<String>getMapValue("metadata", "name"))).containsExactly("porsche", "mercedes");
+        }
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
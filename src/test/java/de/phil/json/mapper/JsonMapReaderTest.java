@@ -0,0 +1,75 @@
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.phil.json.mapper.impl.JsonListImpl;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JsonMapReader}.
+ */
+class JsonMapReaderTest {
+
+    private static final String JSON = "{\"a\":1,\"b\":12345678901,\"c\":123456789012345678901234,\"d\":1.5,\"e\":\"s\",\"f\":true,"
+            + "\"g\":null,\"h\":[],\"i\":[1,\"x\"],\"j\":[{\"k\":{\"l\":[{\"m\":1}]}},{\"n\":2}],\"o\":{\"p\":{\"q\":false}}}";
+
+    @Test
+    void readsOptimizedMaps() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        assertThat(jsonMap.isOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(jsonMap.get("o")).isInstanceOf(JsonMapImpl.class);
+        assertThat(jsonMap.getAsMap("o", JsonMapImpl.class).isOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(jsonMap.get("j")).isInstanceOf(JsonListImpl.class);
+        final JsonMapImpl k = jsonMap.getAsJsonList("j", JsonMapImpl.class).get(0).getAsMap("k", JsonMapImpl.class);
+        assertThat(k.get("l")).isInstanceOf(JsonListImpl.class);
+        assertThat(k.getAsJsonList("l", JsonMapImpl.class).get(0)).isInstanceOf(JsonMapImpl.class);
+    }
+
+    @Test
+    void readsScalarsLikeJackson() throws Exception {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final Map<?, ?> expected = new ObjectMapper().readValue(JSON, Map.class);
+        assertThat(jsonMap).isEqualTo(expected);
+        assertThat(jsonMap.get("a")).isInstanceOf(Integer.class);
+        assertThat(jsonMap.get("b")).isInstanceOf(Long.class);
+        assertThat(jsonMap.get("c")).isInstanceOf(BigInteger.class);
+        assertThat(jsonMap.get("d")).isInstanceOf(Double.class);
+        assertThat(jsonMap).containsKey("g");
+    }
+
+    @Test
+    void readsMixedAndEmptyArraysAsPlainLists() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson("{\"h\":[],\"r\":[{\"s\":1},3]}", JsonMapImpl.class);
+        assertThat(jsonMap.get("h")).isExactlyInstanceOf(ArrayList.class);
+        assertThat(jsonMap.get("r")).isExactlyInstanceOf(ArrayList.class);
+        assertThat(((List<?>) jsonMap.get("r")).get(0)).isInstanceOf(JsonMapImpl.class);
+    }
+
+    @Test
+    void readsNestedMapsIntoRequestedClass() {
+        final MemberJsonMap member = JsonMapping.readJson("{\"x\":{\"name\":\"n\"},\"l\":[{\"name\":\"q\"}]}", MemberJsonMap.class);
+        assertThat(member.getAsMap("x", MemberJsonMap.class).getName()).isEqualTo("n");
+        assertThat(member.getAsJsonList("l", MemberJsonMap.class).get(0)).isInstanceOf(MemberJsonMap.class);
+    }
+
+    @Test
+    void canReadOnlyConcreteMaps() {
+        assertThat(JsonMapReader.canRead(JsonMapImpl.class)).isTrue();
+        assertThat(JsonMapReader.canRead(JsonMap.class)).isFalse();
+        assertThat(JsonMapReader.canRead(Map.class)).isFalse();
+    }
+
+    @Test
+    void failsOnTruncatedJson() {
+        assertThatThrownBy(() -> JsonMapping.readJson("{\"a\":[1,", JsonMapImpl.class)).isInstanceOf(JsonParseException.class);
+    }
+}
@@ -83,6 +83,36 @@ class JsonMapTest {
         assertThat(jsonMap.getAsJsonList("persons", JsonMapImpl.class)).hasSize(3);
     }
 
+    @Test
+    void lazilyOptimizedMapIsOptimizedOnAccess() {
+        final JsonMapImpl jsonMap = JsonMapping.readJsonLazily("{\"person\":{\"name\":\"x\",\"address\":{\"city\":\"y\"}},"
+                                                                       + "\"persons\":[{\"name\":\"a\"},{\"name\":\"b\"}]}", JsonMapImpl.class);
+        assertThat(jsonMap.isOptimizedFor(JsonMapImpl.class)).isFalse();
+        assertThat(jsonMap.isLazilyOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(jsonMap.get("person")).isNotInstanceOf(JsonMapImpl.class);
+
+        final JsonMapImpl person = jsonMap.getAsMap("person", JsonMapImpl.class);
+        assertThat(person.isLazilyOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(jsonMap.get("person")).isSameAs(person);
+        assertThat(person.getAsMap("address", JsonMapImpl.class).getAsString("city")).isEqualTo("y");
+
+        final JsonList persons = jsonMap.getAsJsonList("persons", JsonMapImpl.class);
+        assertThat(persons).allMatch(JsonMapImpl.class::isInstance);
+        assertThat(jsonMap.getAsJsonList("persons", JsonMapImpl.class)).isSameAs(persons);
+        assertThat(persons.get(1).getAsString("name")).isEqualTo("b");
+
+        assertThat(JsonMapping.readJson("{\"a\":{}}", JsonMapImpl.class).isOptimizedFor(JsonMapImpl.class)).isTrue();
+    }
+
+    @Test
+    void lazilyOptimizedListKeepsNullElements() {
+        final JsonMapImpl jsonMap = JsonMapping.readJsonLazily("{\"persons\":[{\"name\":\"a\"},null]}", JsonMapImpl.class);
+        final JsonList persons = jsonMap.getAsJsonList("persons", JsonMapImpl.class);
+        assertThat(persons).hasSize(2);
+        assertThat(persons.get(0).getAsString("name")).isEqualTo("a");
+        assertThat(persons.get(1)).isNull();
+    }
+
     @Test
     void canGetSpecificMap() {
         final Map<String, Person> personMap = Collections.singletonMap("person", new Person(NAME, MEMBER_SINCE));
@@ -216,6 +246,37 @@ class JsonMapTest {
         assertThat(map.getAs("b", BigDecimal.class)).isNull();
     }
 
+    @Test
+    void canGetPrimitives() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson("{\"i\":1,\"l\":12345678901,\"d\":1.5,\"s\":\"7\",\"b\":true,\"t\":\"true\"}",
+                                                         JsonMapImpl.class);
+        assertThat(jsonMap.getInt("i", 0)).isEqualTo(1);
+        assertThat(jsonMap.getInt("s", 0)).isEqualTo(7);
+        assertThat(jsonMap.getLong("i", 0)).isEqualTo(1L);
+        assertThat(jsonMap.getLong("l", 0)).isEqualTo(12345678901L);
+        assertThat(jsonMap.getDouble("l", 0)).isEqualTo(12345678901.0);
+        assertThat(jsonMap.getDouble("d", 0)).isEqualTo(1.5);
+        assertThat(jsonMap.getBoolean("b", false)).isTrue();
+        assertThat(jsonMap.getBoolean("t", false)).isTrue();
+    }
+
+    @Test
+    void getPrimitiveReturnsDefaultForMissingValue() {
+        final JsonMapImpl jsonMap = new JsonMapImpl();
+        jsonMap.put("n", null);
+        assertThat(jsonMap.getInt("x", -1)).isEqualTo(-1);
+        assertThat(jsonMap.getLong("n", -1)).isEqualTo(-1L);
+        assertThat(jsonMap.getDouble("x", -1)).isEqualTo(-1.0);
+        assertThat(jsonMap.getBoolean("x", true)).isTrue();
+    }
+
+    @Test
+    void getPrimitiveThrowsExceptionOnIllegalConversion() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson("{\"l\":12345678901,\"s\":\"x\"}", JsonMapImpl.class);
+        assertThatThrownBy(() -> jsonMap.getInt("l", 0)).isInstanceOf(TypeConversionException.class);
+        assertThatThrownBy(() -> jsonMap.getLong("s", 0)).isInstanceOf(TypeConversionException.class);
+    }
+
     @Test
     void booleanMapValueIsBoolean() {
         assertThat(cars.get("name", "audi").get("metallic")).isEqualTo(true);
@@ -373,6 +434,31 @@ class JsonMapTest {
         assertThatThrownBy(() -> jsonMap.optimize(JsonMap.class)).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void frozenMapIsReadOnly() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson("{\"cars\":[{\"name\":\"audi\",\"extras\":[\"horn\"]}],"
+                                                         + "\"config\":{\"a\":{\"b\":1}}}", JsonMapImpl.class);
+        final String json = JsonMapping.writeValueAsString(jsonMap);
+        jsonMap.freeze(JsonMapImpl.class);
+        assertThat(jsonMap.isFrozen()).isTrue();
+        assertThat(JsonMapping.writeValueAsString(jsonMap)).isEqualTo(json);
+
+        final JsonMap config = jsonMap.getAsMap("config");
+        final JsonList cars = jsonMap.getAsJsonList("cars");
+        assertThat(config.getAsMap("a").isFrozen()).isTrue();
+        assertThatThrownBy(() -> jsonMap.put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> config.getAsMap("a").remove("b")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> cars.add(new JsonMapImpl())).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> ((List<Object>) cars.get(0).get("extras")).add("tire")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> jsonMap.entrySet().iterator().next().setValue(1)).isInstanceOf(UnsupportedOperationException.class);
+
+        // converting getters return copies instead of storing them
+        final Map<String, Object> copy = jsonMap.getAsMap("config", LinkedHashMap.class);
+        assertThat(copy).isEqualTo(config);
+        assertThat(jsonMap.get("config")).isSameAs(config);
+    }
+
     @SneakyThrows
     private JsonList givenJsonMapWithCars() {
         final InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
@@ -1,14 +1,29 @@
 package de.phil.json.mapper;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.phil.json.mapper.impl.JsonMapImpl;
 import org.apache.commons.io.IOUtils;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -51,6 +66,39 @@ class JsonMappingTest {
         assertThat(map.getMemberSince()).isEqualTo(MEMBER_SINCE);
     }
 
+    @Test
+    void copyIsSameAsReadingWrittenJson() {
+        final Map<String, Object> data = Map.of("person", new Person(NAME, MEMBER_SINCE),
+                                                "numbers", List.of(1L, 10_000_000_000L, 0.1f, new BigDecimal("1.50")),
+                                                "bytes", new byte[]{1, 2, 3});
+        final JsonMap copy = JsonMapping.writeValueAsMap(data);
+        assertThat(copy).isEqualTo(JsonMapping.readJson(JsonMapping.writeValueAsString(data), JsonMapImpl.class));
+        assertThat(copy.getAs("numbers", List.class)).containsExactly(1, 10_000_000_000L, 0.1, 1.5);
+        assertThat(copy.get("bytes")).isEqualTo("AQID");
+        assertThat(copy.isOptimizedFor(JsonMapImpl.class)).isTrue();
+    }
+
+    @Test
+    void bufferKeepsDecimalsAndNonFiniteNumbers() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final ValueBuffer buffer = new ValueBuffer(mapper);
+        buffer.writeStartArray();
+        buffer.writeNumber("NaN");
+        buffer.writeNumber("-Infinity");
+        buffer.writeNumber("0.10000000000000000000001");
+        buffer.writeNumber(new BigDecimal("1.50"));
+        buffer.writeEndArray();
+        try (JsonParser parser = buffer.asParser(mapper)) {
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.START_ARRAY);
+            assertThat(parser.nextTextValue()).isEqualTo("NaN");
+            assertThat(parser.nextTextValue()).isEqualTo("-Infinity");
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.VALUE_NUMBER_FLOAT);
+            assertThat(parser.getDecimalValue()).isEqualTo(new BigDecimal("0.10000000000000000000001"));
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.VALUE_NUMBER_FLOAT);
+            assertThat(parser.getDecimalValue()).isEqualTo(new BigDecimal("1.50"));
+        }
+    }
+
     @SuppressWarnings("ConstantConditions")
     @Test
     void canReadYaml() throws IOException {
@@ -71,4 +119,91 @@ class JsonMappingTest {
         Assertions.assertThat(asYaml).isEqualTo(yaml);
     }
 
+    @Test
+    void canReadYamlFromStream() throws IOException {
+        try (InputStream yamlStream = getClass().getResourceAsStream("/person.yml")) {
+            final JsonMapImpl jsonMap = JsonMapping.readYaml(yamlStream, JsonMapImpl.class);
+            assertThat(jsonMap.isOptimizedFor(JsonMapImpl.class)).isTrue();
+            assertThat(jsonMap.getAsJsonList("persons").get(1).getAsString("lastName")).isEqualTo("Kohl");
+        }
+    }
+
+    @Test
+    void canReadJsonFromReaderPathAndBuffer(@TempDir Path dir) throws IOException {
+        final Person person = new Person(NAME, MEMBER_SINCE);
+        final String json = JsonMapping.writeValueAsString(person);
+        final Path file = Files.writeString(dir.resolve("person.json"), json);
+        final ByteBuffer heapBuffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        final ByteBuffer directBuffer = ByteBuffer.allocateDirect(heapBuffer.capacity()).put(heapBuffer.duplicate()).flip();
+
+        assertThat(JsonMapping.readJson(new StringReader(json), Person.class)).isEqualTo(person);
+        assertThat(JsonMapping.readJson(file, Person.class)).isEqualTo(person);
+        assertThat(JsonMapping.readJson(heapBuffer, Person.class)).isEqualTo(person);
+        assertThat(JsonMapping.readJson(directBuffer, Person.class)).isEqualTo(person);
+        assertThat(directBuffer.position()).isZero();
+    }
+
+    @Test
+    void canWriteToStreamWriterAndChannel() {
+        final Person person = new Person(NAME, MEMBER_SINCE);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonMapping.writeJson(person, out);
+        final StringWriter writer = new StringWriter();
+        JsonMapping.writeJson(person, writer);
+        final ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+        JsonMapping.writeJson(person, Channels.newChannel(channelOut));
+
+        final String json = JsonMapping.writeValueAsString(person);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(json);
+        assertThat(writer).hasToString(json);
+        assertThat(channelOut.toString(StandardCharsets.UTF_8)).isEqualTo(json);
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Test
+    void canWriteYamlToStream() throws IOException {
+        final String yaml = IOUtils.toString(getClass().getResourceAsStream("/person.yml"), StandardCharsets.UTF_8);
+        final JsonMapImpl jsonMap = JsonMapping.readYaml(yaml, JsonMapImpl.class);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonMapping.writeYaml(jsonMap, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(yaml);
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Test
+    void canReadMappedYaml(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("cars.yml");
+        Files.copy(getClass().getResourceAsStream("/cars.yml"), file);
+        final JsonMapImpl jsonMap = JsonMapping.readMappedYaml(file, JsonMapImpl.class);
+        assertThat(jsonMap.isOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(jsonMap.getAsJsonList("cars").get("name", "mercedes").getAsMap("mapOfMaps").isOptimizedFor(JsonMapImpl.class)).isTrue();
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Test
+    void canWriteAndReadSmileAndCbor() throws IOException {
+        final JsonMapImpl cars = JsonMapping.readYaml(getClass().getResourceAsStream("/cars.yml"), JsonMapImpl.class);
+        final byte[] smile = JsonMapping.writeValueAsSmile(cars);
+        final byte[] cbor = JsonMapping.writeValueAsCbor(cars);
+        assertThat(JsonMapping.readSmile(smile, JsonMapImpl.class)).isEqualTo(cars);
+        assertThat(JsonMapping.readCbor(cbor, JsonMapImpl.class)).isEqualTo(cars);
+        final JsonMapImpl jsonMap = JsonMapping.readSmile(new ByteArrayInputStream(smile), JsonMapImpl.class);
+        assertThat(jsonMap.getAsJsonList("cars").get("name", "mercedes").getAsMap("mapOfMaps").isOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(smile.length).isLessThan(JsonMapping.writeValueAsString(cars).length());
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Test
+    void detectsFormat() throws IOException {
+        final String yaml = IOUtils.toString(getClass().getResourceAsStream("/person.yml"), StandardCharsets.UTF_8);
+        final JsonMapImpl jsonMap = JsonMapping.readYaml(yaml, JsonMapImpl.class);
+        assertThat(JsonMapping.readAnyFormat(yaml.getBytes(StandardCharsets.UTF_8), JsonMapImpl.class)).isEqualTo(jsonMap);
+        assertThat(JsonMapping.readAnyFormat(JsonMapping.writeValueAsString(jsonMap).getBytes(StandardCharsets.UTF_8), JsonMapImpl.class))
+                .isEqualTo(jsonMap);
+        assertThat(JsonMapping.readAnyFormat(new ByteArrayInputStream(JsonMapping.writeValueAsSmile(jsonMap)), JsonMapImpl.class))
+                .isEqualTo(jsonMap);
+        assertThat(JsonMapping.readAnyFormat(new ByteArrayInputStream(JsonMapping.writeValueAsCbor(jsonMap)), JsonMapImpl.class))
+                .isEqualTo(jsonMap);
+    }
+
 }
@@ -0,0 +1,71 @@
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import lombok.SneakyThrows;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JsonPath}.
+ */
+class JsonPathTest {
+    private final JsonMap jsonMap = givenJsonMapWithCars();
+
+    @Test
+    void canGetNestedValues() {
+        assertThat(jsonMap.getPath("cars[2].mapOfMaps.map1.b")).isEqualTo("B");
+        assertThat(jsonMap.getPath("cars[2].extras[2]")).isEqualTo("furzkissen");
+        assertThat(jsonMap.getPath("cars[0].price", Long.class)).isEqualTo(10_000_000_000L);
+    }
+
+    @Test
+    void canGetValuesWithConversion() {
+        enum ABC {A, B, C}
+
+        assertThat(jsonMap.getPath("cars[2].mapOfMaps.map1.b", ABC.class)).isEqualTo(ABC.B);
+    }
+
+    @Test
+    void canQuoteKeys() {
+        final JsonMap map = JsonMapping.readJson("{\"a.b\":{\"c'd\":1}}", JsonMapImpl.class);
+        assertThat(map.getPath("['a.b']['c\\'d']")).isEqualTo(1);
+    }
+
+    @Test
+    void missingValuesAreNull() {
+        assertThat(jsonMap.getPath("cars[9].name")).isNull();
+        assertThat(jsonMap.getPath("cars[1].extras[0]")).isNull();
+        assertThat(jsonMap.getPath("cars.name")).isNull();
+        assertThat(jsonMap.getPath("cars[0].name.first")).isNull();
+    }
+
+    @Test
+    void compiledPathsAreCached() {
+        assertThat(JsonPath.compile("cars[2].extras[0]")).isSameAs(JsonPath.compile("cars[2].extras[0]"));
+        assertThat(JsonPath.compile("a.b")).isEqualTo(JsonPath.compile("['a']['b']"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", ".a", "a.", "a..b", "a[x]", "a[-1]", "a[1", "['a'", "[0]", "a.[0]", "a]"})
+    void throwsExceptionForInvalidPath(String path) {
+        assertThatThrownBy(() -> JsonPath.compile(path))
+                  .isInstanceOf(IllegalArgumentException.class)
+                  .hasMessageContaining("is invalid at position");
+    }
+
+    @SneakyThrows
+    private JsonMap givenJsonMapWithCars() {
+        final InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
+        assertThat(yamlStream).isNotNull();
+        final String yaml = IOUtils.toString(yamlStream, StandardCharsets.UTF_8);
+        return JsonMapping.readYaml(yaml, JsonMapImpl.class);
+    }
+}
@@ -0,0 +1,64 @@
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JsonSequenceWriter}.
+ */
+class JsonSequenceWriterTest {
+
+    @Test
+    void writesOneMapPerLine() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonSequenceWriter writer = JsonMapping.writeNdJson(out)) {
+            writer.write(Map.of("name", "audi", "color", "blue"))
+                  .writeAll(List.of(Map.of("name", "porsche\nturbo"), Map.of("name", "mercedes")));
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                {"color":"blue","name":"audi"}
+                {"name":"porsche\\nturbo"}
+                {"name":"mercedes"}
+                """);
+    }
+
+    @Test
+    void writtenMapsCanBeReadAgain() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonSequenceWriter writer = JsonMapping.writeNdJson(out)) {
+            writer.write(Map.of("id", 1));
+        }
+        try (JsonSequenceWriter writer = JsonMapping.writeNdJson(out)) {
+            writer.write(Map.of("id", 2));
+        }
+        try (JsonMapIterator<JsonMapImpl> maps = JsonMapping.iterateNdJson(new ByteArrayInputStream(out.toByteArray()), JsonMapImpl.class)) {
+            assertThat(maps.stream().map(jm -> jm.getAs("id", Integer.class))).containsExactly(1, 2);
+        }
+    }
+
+    @Test
+    void writesYamlDocuments() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonSequenceWriter writer = JsonMapping.writeYamlDocuments(out)) {
+            writer.write(Map.of("name", "audi"))
+                  .write(Map.of("name", "porsche"));
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                ---
+                name: audi
+                ---
+                name: porsche
+                """);
+        try (JsonMapIterator<JsonMapImpl> documents = JsonMapping.iterateYamlDocuments(new ByteArrayInputStream(out.toByteArray()), JsonMapImpl.class)) {
+            assertThat(documents.stream().map(jm -> jm.getAsString("name"))).containsExactly("audi", "porsche");
+        }
+    }
+}
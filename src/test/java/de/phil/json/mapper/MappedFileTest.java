@@ -0,0 +1,49 @@
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MappedFile}.
+ */
+class MappedFileTest {
+    private static final String JSON = "{\"cars\": [{\"name\": \"audi\"}, {\"name\": \"porsche\", \"extras\": [\"tire\", \"horn\"]}]}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void canReadAcrossSegments() throws IOException {
+        final MappedFile file = MappedFile.map(givenFile(), 7);
+        assertThat(file.size()).isEqualTo(JSON.length());
+        assertThat(new String(file.newInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(JSON);
+        assertThat(new String(file.newInputStream(5, 30).readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(JSON.substring(5, 30));
+        assertThat((char) file.get(20)).isEqualTo(JSON.charAt(20));
+    }
+
+    @Test
+    void canParseAcrossSegments() throws IOException {
+        final MappedFile file = MappedFile.map(givenFile(), 3);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(file.newInputStream(), JsonMapImpl.class);
+        assertThat(jsonMap.getAsJsonList("cars").get("name", "porsche").listContains("extras", "horn")).isTrue();
+    }
+
+    @Test
+    void canMapEmptyFile() throws IOException {
+        final MappedFile file = MappedFile.map(Files.createFile(dir.resolve("empty.json")));
+        assertThat(file.size()).isZero();
+        assertThat(file.newInputStream().readAllBytes()).isEmpty();
+    }
+
+    private Path givenFile() throws IOException {
+        return Files.writeString(dir.resolve("cars.json"), JSON);
+    }
+}
@@ -0,0 +1,108 @@
+package de.phil.json.mapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link NdJsonSpliterator}.
+ */
+class NdJsonSpliteratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void canStreamRecords() throws IOException {
+        final Path file = givenFile(1000);
+        try (Stream<JsonMapImpl> records = JsonMapping.streamNdJson(file, JsonMapImpl.class)) {
+            assertThat(records.map(jm -> jm.getAs("id", Integer.class))).containsExactlyElementsOf(ids(1000));
+        }
+    }
+
+    @Test
+    void parallelStreamKeepsOrder() throws IOException {
+        final Path file = givenFile(10_000);
+        try (Stream<JsonMapImpl> records = JsonMapping.streamNdJson(file, JsonMapImpl.class)) {
+            final List<Integer> parsed = records.parallel().map(jm -> jm.getAs("id", Integer.class)).collect(Collectors.toList());
+            assertThat(parsed).containsExactlyElementsOf(ids(10_000));
+        }
+    }
+
+    @Test
+    void splitsAtLineBoundaries() throws IOException {
+        final Path file = givenFile(100);
+        final MappedFile mappedFile = MappedFile.map(file, 64);
+        final List<Spliterator<JsonMapImpl>> parts = new ArrayList<>();
+        split(new NdJsonSpliterator<>(new ObjectMapper(), mappedFile, JsonMapImpl.class, 128, 0, mappedFile.size()), parts);
+
+        assertThat(parts).hasSizeGreaterThan(2);
+        final List<Integer> parsed = new ArrayList<>();
+        parts.forEach(part -> part.forEachRemaining(jm -> parsed.add(jm.getAs("id", Integer.class))));
+        assertThat(parsed).containsExactlyElementsOf(ids(100));
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        final Path file = Files.writeString(dir.resolve("blank.ndjson"), "{\"id\": 0}\r\n\n  \n{\"id\": 1}");
+        try (Stream<JsonMapImpl> records = JsonMapping.streamNdJson(file, JsonMapImpl.class)) {
+            assertThat(records.map(jm -> jm.getAs("id", Integer.class))).containsExactly(0, 1);
+        }
+    }
+
+    @Test
+    void keepsNullRecords() throws IOException {
+        final Path file = Files.writeString(dir.resolve("null.ndjson"), "{\"id\": 0}\nnull\n{\"id\": 1}");
+        try (Stream<JsonMapImpl> records = JsonMapping.streamNdJson(file, JsonMapImpl.class)) {
+            assertThat(records.map(jm -> (jm == null) ? null : jm.getAs("id", Integer.class))).containsExactly(0, null, 1);
+        }
+    }
+
+    @Test
+    void rejectsContentAfterRecord() throws IOException {
+        final Path file = Files.writeString(dir.resolve("two.ndjson"), "{\"id\": 0} {\"id\": 1}");
+        try (Stream<JsonMapImpl> records = JsonMapping.streamNdJson(file, JsonMapImpl.class)) {
+            assertThatThrownBy(records::toList).isInstanceOf(JsonParseException.class).hasMessageContaining("Unexpected content after record");
+        }
+    }
+
+    private static void split(Spliterator<JsonMapImpl> spliterator, List<Spliterator<JsonMapImpl>> parts) {
+        final Spliterator<JsonMapImpl> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            parts.add(spliterator);
+        } else {
+            split(prefix, parts);
+            split(spliterator, parts);
+        }
+    }
+
+    private Path givenFile(int records) throws IOException {
+        final Path file = dir.resolve("records.ndjson");
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonSequenceWriter writer = JsonMapping.writeNdJson(out)) {
+            IntStream.range(0, records).forEach(i -> writer.write(Map.of("id", i, "name", "record " + i)));
+        }
+        return file;
+    }
+
+    private static List<Integer> ids(int records) {
+        return IntStream.range(0, records).boxed().collect(Collectors.toList());
+    }
+}
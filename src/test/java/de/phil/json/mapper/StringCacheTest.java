@@ -0,0 +1,47 @@
+package de.phil.json.mapper;
+
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StringCache}.
+ */
+class StringCacheTest {
+
+    @Test
+    void returnsCanonicalInstances() {
+        final StringCache cache = new StringCache(true, 8);
+        final String key = cache.key(new String("name"));
+        assertThat(cache.key(new String("name"))).isSameAs(key);
+        final String value = cache.value("xblue".toCharArray(), 1, 4);
+        assertThat(value).isEqualTo("blue");
+        assertThat(cache.value("blue!".toCharArray(), 0, 4)).isSameAs(value);
+        assertThat(cache.key(new String("blue"))).isSameAs(value);
+        assertThat(cache.isCached(8)).isTrue();
+        assertThat(cache.isCached(9)).isFalse();
+    }
+
+    @Test
+    void keepsKeysIfDisabled() {
+        final StringCache cache = new StringCache(false, 8);
+        final String key = new String("name");
+        cache.key("name");
+        assertThat(cache.key(key)).isSameAs(key);
+    }
+
+    @Test
+    void deduplicatesParsedStrings() {
+        final String json = "{\"cars\":[{\"name\":\"audi\",\"color\":\"blue\"},{\"name\":\"bmw\",\"color\":\"blue\"}]}";
+        final StringCache cache = new StringCache(true, 16);
+        final List<JsonMap> first = JsonMapping.readJson(json, JsonMapImpl.class, cache).getAsJsonList("cars");
+        final List<JsonMap> second = JsonMapping.readJson(json, JsonMapImpl.class, cache).getAsJsonList("cars");
+        assertThat(first.get(0).get("color")).isSameAs(first.get(1).get("color")).isSameAs(second.get(0).get("color"));
+        assertThat(first).isEqualTo(second);
+        final List<JsonMap> other = JsonMapping.readJson(json, JsonMapImpl.class).getAsJsonList("cars");
+        assertThat(other.get(0).get("color")).isNotSameAs(other.get(1).get("color"));
+    }
+}
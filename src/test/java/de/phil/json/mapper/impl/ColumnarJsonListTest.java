@@ -0,0 +1,138 @@
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import lombok.SneakyThrows;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ColumnarJsonList}.
+ */
+class ColumnarJsonListTest {
+    private final JsonList cars = givenJsonMapWithCars();
+
+    @Test
+    void isEqualToSourceList() {
+        final ColumnarJsonList columnar = new ColumnarJsonList(cars);
+        assertThat(columnar).isEqualTo(cars);
+        assertThat(columnar.hashCode()).isEqualTo(cars.hashCode());
+        assertThat(JsonMapping.writeValueAsString(columnar)).isEqualTo(JsonMapping.writeValueAsString(cars));
+    }
+
+    @Test
+    void elementsAreJsonMaps() {
+        final ColumnarJsonList columnar = new ColumnarJsonList(cars);
+        final JsonMap mercedes = columnar.get("name", "mercedes");
+        assertThat(mercedes.getAsMap("mapOfMaps").getAsMap("map1").getAsString("b")).isEqualTo("B");
+        assertThat(mercedes.listContains("extras", "furzkissen")).isTrue();
+        assertThat(columnar.get("4wd", true).getAsString("name")).isEqualTo("porsche");
+        assertThat(columnar.get(1).containsKey("extras")).isFalse();
+    }
+
+    @Test
+    void canAggregateColumns() {
+        final ColumnarJsonList columnar = new ColumnarJsonList();
+        for (int i = 0; i < 1000; i++) {
+            columnar.addRow(Map.of("i", i, "l", 10_000_000_000L + i, "d", i / 2.0, "s", "v" + (i % 3)));
+        }
+        assertThat(columnar.mapToInt("i", 0).sum()).isEqualTo(499_500);
+        assertThat(columnar.mapToLong("l", 0).max().orElseThrow()).isEqualTo(10_000_000_999L);
+        assertThat(columnar.mapToDouble("d", 0).sum()).isEqualTo(249_750.0);
+        assertThat(columnar.mapToLong("missing", 7).sum()).isEqualTo(7000L);
+        assertThat(columnar.findAll("s", "v1")).hasSize(333);
+    }
+
+    @Test
+    void valuesCanBeChanged() {
+        final ColumnarJsonList columnar = new ColumnarJsonList(cars);
+        final JsonMap audi = columnar.get(0);
+        audi.put("name", "audi quattro");
+        audi.put("price", "expensive");
+        audi.remove("metallic");
+        audi.put("color", null);
+        assertThat(columnar.get(0).getAsString("name")).isEqualTo("audi quattro");
+        assertThat(columnar.get(0).get("price")).isEqualTo("expensive");
+        assertThat(columnar.get(0).containsKey("metallic")).isFalse();
+        assertThat(columnar.get(0).containsKey("color")).isTrue();
+        assertThat(columnar.get(0).get("color")).isNull();
+        assertThat(columnar.get(1).get("price")).isEqualTo(cars.get(1).get("price"));
+    }
+
+    @Test
+    void rowsCanBeAddedAndRemoved() {
+        final ColumnarJsonList columnar = new ColumnarJsonList(cars);
+        final JsonMap porsche = columnar.remove(1);
+        assertThat(porsche).isEqualTo(cars.get(1));
+        assertThat(columnar).hasSize(cars.size() - 1);
+        assertThat(columnar.get(1)).isEqualTo(cars.get(2));
+        columnar.add(1, porsche);
+        assertThat(columnar).isEqualTo(cars);
+        columnar.set(0, new JsonMapImpl(Map.of("name", "trabant")));
+        assertThat(columnar.get(0)).isEqualTo(Map.of("name", "trabant"));
+        assertThatThrownBy(() -> columnar.get(cars.size())).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void viewsFollowTheirRows() {
+        final ColumnarJsonList columnar = new ColumnarJsonList(cars);
+        final JsonMap mercedes = columnar.get(2);
+        final JsonMap porsche = columnar.get(1);
+        columnar.remove(0);
+        assertThat(mercedes.getAsString("name")).isEqualTo("mercedes");
+        columnar.add(0, new JsonMapImpl(Map.of("name", "trabant")));
+        columnar.add(0, new JsonMapImpl(Map.of("name", "wartburg")));
+        mercedes.put("color", "black");
+        assertThat(columnar.get(3).getAsString("color")).isEqualTo("black");
+        columnar.remove(porsche);
+        assertThatThrownBy(() -> porsche.get("name")).isInstanceOf(IllegalStateException.class);
+        assertThat(mercedes.getAsString("name")).isEqualTo("mercedes");
+    }
+
+    @Test
+    void columnTypeFollowsFirstValue() {
+        final ColumnarJsonList columnar = new ColumnarJsonList();
+        final Map<String, Object> nulls = new HashMap<>();
+        nulls.put("i", null);
+        nulls.put("l", null);
+        columnar.addRow(nulls);
+        columnar.addRow(Map.of("i", 1, "l", 2));
+        columnar.addRow(Map.of("i", 3, "l", 10_000_000_000L));
+        assertThat(columnar.get(0)).isEqualTo(nulls);
+        assertThat(columnar.get(1)).isEqualTo(Map.of("i", 1, "l", 2L));
+        assertThat(columnar.get(2).get("l")).isEqualTo(10_000_000_000L);
+        assertThat(columnar.mapToLong("l", 0).sum()).isEqualTo(10_000_000_002L);
+        assertThat(columnar.mapToInt("i", 0).sum()).isEqualTo(4);
+    }
+
+    @Test
+    void storesDistinctStrings() {
+        final ColumnarJsonList columnar = new ColumnarJsonList();
+        for (int i = 0; i < 2000; i++) {
+            columnar.addRow(Map.of("id", "id" + i, "s", "v" + (i % 3)));
+        }
+        assertThat(columnar.get(1999).getAsString("id")).isEqualTo("id1999");
+        assertThat(columnar.findAll("id", "id1000")).hasSize(1);
+        assertThat(columnar.findAll("s", "v1")).hasSize(667);
+        columnar.remove(0);
+        assertThat(columnar.get(0).getAsString("id")).isEqualTo("id1");
+    }
+
+    @SneakyThrows
+    private JsonList givenJsonMapWithCars() {
+        final InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
+        assertThat(yamlStream).isNotNull();
+        final String yaml = IOUtils.toString(yamlStream, StandardCharsets.UTF_8);
+        final JsonMap jsonMap = JsonMapping.readYaml(yaml, JsonMapImpl.class);
+        return jsonMap.getAsJsonList("cars");
+    }
+}
@@ -0,0 +1,120 @@
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CompactJsonMap}.
+ */
+class CompactJsonMapTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1,\"extras\":{\"x\":1}},"
+            + "{\"name\":\"bmw\",\"id\":2,\"extras\":{\"x\":2}}],\"z\":[1,2]}";
+
+    @Test
+    void isEqualToJsonMapImpl() {
+        final CompactJsonMap compact = JsonMapping.readJson(JSON, CompactJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        assertThat(compact).isEqualTo(jsonMap);
+        assertThat(jsonMap).isEqualTo(compact);
+        assertThat(compact.hashCode()).isEqualTo(jsonMap.hashCode());
+        assertThat(JsonMapping.writeValueAsString(compact)).isEqualTo(JsonMapping.writeValueAsString(jsonMap));
+    }
+
+    @Test
+    void readsNestedCompactMaps() {
+        final CompactJsonMap compact = JsonMapping.readJson(JSON, CompactJsonMap.class);
+        assertThat(compact.isOptimizedFor(CompactJsonMap.class)).isTrue();
+        final JsonList cars = compact.getAsJsonList("cars", CompactJsonMap.class);
+        assertThat(cars.get(0)).isInstanceOf(CompactJsonMap.class);
+        assertThat(cars.get(1).getAsMap("extras", CompactJsonMap.class).getInt("x", 0)).isEqualTo(2);
+    }
+
+    @Test
+    void keepsInsertionOrder() {
+        final CompactJsonMap compact = new CompactJsonMap();
+        compact.put("b", 1);
+        compact.put("a", 2);
+        compact.put("c", 3);
+        compact.remove("a");
+        compact.put("a", null);
+        assertThat(compact.keySet()).containsExactly("b", "c", "a");
+        assertThat(compact).containsKey("a").hasSize(3);
+        assertThat(compact.put("b", 4)).isEqualTo(1);
+        assertThat(compact.get("b")).isEqualTo(4);
+    }
+
+    @Test
+    void entriesCanBeChangedAndRemoved() {
+        final CompactJsonMap compact = new CompactJsonMap(Map.of("a", 1, "b", 2, "c", 3));
+        final Iterator<Map.Entry<String, Object>> iterator = compact.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Object> entry = iterator.next();
+            if (entry.getKey().equals("a")) {
+                iterator.remove();
+            } else {
+                entry.setValue(0);
+            }
+        }
+        assertThat(compact).isEqualTo(Map.of("b", 0, "c", 0));
+    }
+
+    @Test
+    void supportsManyKeys() {
+        final CompactJsonMap compact = new CompactJsonMap();
+        for (int i = 0; i < 200; i++) {
+            compact.put("k" + i, i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            compact.remove("k" + i);
+        }
+        assertThat(compact).hasSize(100).containsEntry("k199", 199).doesNotContainKey("k0");
+    }
+
+    @Test
+    void wideMapsDoNotShareKeys() {
+        final CompactJsonMap first = new CompactJsonMap();
+        final CompactJsonMap second = new CompactJsonMap();
+        for (int i = 0; i < 100; i++) {
+            first.put("k" + i, i);
+            second.put("k" + i, i);
+        }
+        first.put("x", 1);
+        second.remove("k80");
+        assertThat(first).hasSize(101).containsEntry("x", 1).containsEntry("k80", 80);
+        assertThat(second).hasSize(99).doesNotContainKey("x").doesNotContainKey("k80").containsEntry("k81", 81);
+        assertThat(second.keySet()).startsWith("k0", "k1").containsSubsequence("k79", "k81", "k99");
+    }
+
+    @Test
+    void detectsChangesWhileIteratingWideMap() {
+        final CompactJsonMap compact = new CompactJsonMap();
+        for (int i = 0; i < 100; i++) {
+            compact.put("k" + i, i);
+        }
+        final Iterator<String> keys = compact.keySet().iterator();
+        keys.next();
+        compact.put("x", 1);
+        assertThatThrownBy(keys::next).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    void notifiesIndexingLists() {
+        final JsonList cars = JsonMapping.readJson(JSON, CompactJsonMap.class).getAsJsonList("cars", CompactJsonMap.class).indexBy("id");
+        final JsonMap audi = cars.get("id", 1);
+        audi.put("id", 7);
+        assertThat(cars.findAll("id", 7)).containsExactly(audi);
+        assertThat(cars.findAll("id", 1)).isEmpty();
+        audi.clear();
+        assertThat(cars.findAll("id", 7)).isEmpty();
+    }
+}
@@ -0,0 +1,100 @@
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import lombok.SneakyThrows;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link OffHeapJsonList}.
+ */
+class OffHeapJsonListTest {
+    private final JsonList cars = givenJsonMapWithCars();
+
+    @Test
+    void isEqualToSourceList() {
+        try (OffHeapJsonList offHeap = new OffHeapJsonList(cars)) {
+            assertThat(offHeap).isEqualTo(cars);
+            assertThat(JsonMapping.writeValueAsString(offHeap)).isEqualTo(JsonMapping.writeValueAsString(cars));
+        }
+    }
+
+    @Test
+    void elementsAreOptimizedJsonMaps() {
+        try (OffHeapJsonList offHeap = new OffHeapJsonList(cars)) {
+            final JsonMap mercedes = offHeap.get("name", "mercedes");
+            assertThat(mercedes.isOptimizedFor(JsonMapImpl.class)).isTrue();
+            assertThat(mercedes.getAsMap("mapOfMaps").getAsMap("map1").getAsString("b")).isEqualTo("B");
+            assertThat(mercedes.listContains("extras", "furzkissen")).isTrue();
+            assertThat(offHeap.get("4wd", true).getAsString("name")).isEqualTo("porsche");
+            assertThat(offHeap.findAll("missing", null)).hasSize(cars.size());
+        }
+    }
+
+    @Test
+    void storesScalarsWithTheirTypes() {
+        try (OffHeapJsonList offHeap = new OffHeapJsonList(16)) {
+            final Map<String, Object> values = Map.of("i", -7, "l", 12_345_678_901L, "f", 1.5f, "d", 2.5,
+                                                      "b", false, "bd", new BigDecimal("1.10"), "s", "grüße 😀");
+            offHeap.addMap(values);
+            assertThat(offHeap.get(0)).isEqualTo(values);
+            assertThat(offHeap.mapToLong("l", 0).sum()).isEqualTo(12_345_678_901L);
+            assertThat(offHeap.mapToInt("i", 0).sum()).isEqualTo(-7);
+            assertThat(offHeap.mapToDouble("missing", 3.0).sum()).isEqualTo(3.0);
+        }
+    }
+
+    @Test
+    void mapsCanBeAddedReplacedAndRemoved() {
+        try (OffHeapJsonList offHeap = new OffHeapJsonList(cars)) {
+            final JsonMap porsche = offHeap.remove(1);
+            assertThat(porsche).isEqualTo(cars.get(1));
+            assertThat(offHeap.get(1)).isEqualTo(cars.get(2));
+            offHeap.add(1, porsche);
+            assertThat(offHeap).isEqualTo(cars);
+            offHeap.set(0, new JsonMapImpl(Map.of("name", "trabant")));
+            assertThat(offHeap.get(0)).isEqualTo(Map.of("name", "trabant"));
+            assertThatThrownBy(() -> offHeap.addMap(Map.of("x", new Object()))).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void isEmptyAfterClose() {
+        final OffHeapJsonList offHeap = new OffHeapJsonList(cars);
+        offHeap.close();
+        assertThat(offHeap).isEmpty();
+        assertThatThrownBy(() -> offHeap.add(new JsonMapImpl())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void streamsFailAfterClose() {
+        final OffHeapJsonList offHeap = new OffHeapJsonList(cars);
+        final IntStream prices = offHeap.mapToInt("price", 0);
+        final DoubleStream weights = offHeap.mapToDouble("weight", 0);
+        offHeap.close();
+        assertThatThrownBy(prices::sum).isInstanceOf(ConcurrentModificationException.class);
+        assertThatThrownBy(weights::sum).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @SneakyThrows
+    private JsonList givenJsonMapWithCars() {
+        final InputStream yamlStream = getClass().getResourceAsStream("/cars.yml");
+        assertThat(yamlStream).isNotNull();
+        final String yaml = IOUtils.toString(yamlStream, StandardCharsets.UTF_8);
+        final JsonMap jsonMap = JsonMapping.readYaml(yaml, JsonMapImpl.class);
+        return jsonMap.getAsJsonList("cars");
+    }
+}
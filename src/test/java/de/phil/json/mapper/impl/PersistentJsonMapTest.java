@@ -0,0 +1,89 @@
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link PersistentJsonMap}.
+ */
+class PersistentJsonMapTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1,\"extras\":[\"x\",\"y\"]},{\"name\":\"bmw\",\"id\":2}],"
+            + "\"config\":{\"a\":{\"b\":1}},\"empty\":[]}";
+
+    @Test
+    void isEqualToSourceMap() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final PersistentJsonMap persistent = PersistentJsonMap.of(jsonMap);
+        assertThat(persistent).isEqualTo(jsonMap);
+        assertThat(persistent.hashCode()).isEqualTo(jsonMap.hashCode());
+        assertThat(JsonMapping.writeValueAsString(persistent)).isEqualTo(JsonMapping.writeValueAsString(jsonMap));
+        assertThat(JsonMapping.readJson(JSON, PersistentJsonMap.class)).isEqualTo(persistent);
+    }
+
+    @Test
+    void versionsShareUnchangedSubtrees() {
+        final PersistentJsonMap original = JsonMapping.readJson(JSON, PersistentJsonMap.class);
+        final PersistentJsonMap changed = original.withPath("config.a.c", 5);
+        assertThat(changed.getPath("config.a.c")).isEqualTo(5);
+        assertThat(original.getPath("config.a.c")).isNull();
+        assertThat(changed.get("cars")).isSameAs(original.get("cars"));
+        assertThat(changed.get("empty")).isSameAs(original.get("empty"));
+        assertThat(changed.with("cars", changed.get("cars"))).isSameAs(changed);
+    }
+
+    @Test
+    void pathsCanChangeLists() {
+        final PersistentJsonMap original = JsonMapping.readJson(JSON, PersistentJsonMap.class);
+        final PersistentJsonMap changed = original.withPath("cars[1].name", "vw")
+                                                  .withPath("cars[2]", Map.of("name", "kia"))
+                                                  .withPath("cars[0].extras[1]", "z")
+                                                  .withPath("new.deep", true);
+        assertThat(changed.getAsJsonList("cars").get("name", "vw").getInt("id", 0)).isEqualTo(2);
+        assertThat(changed.getAsJsonList("cars").get(2)).isInstanceOf(PersistentJsonMap.class);
+        assertThat(changed.getPath("cars[0].extras[1]")).isEqualTo("z");
+        assertThat(changed.getAsMap("new").is("deep")).isTrue();
+        assertThat(original.getAsJsonList("cars").get(1).getAsString("name")).isEqualTo("bmw");
+        assertThatThrownBy(() -> original.withPath("cars.name", 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> original.withPath("cars[5]", 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cannotBeChanged() {
+        final JsonMap persistent = PersistentJsonMap.of(Map.of("a", 1));
+        assertThatThrownBy(() -> persistent.put("b", 2)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> persistent.remove("a")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(persistent.getAsMap("a", JsonMapImpl.class)).isNull();
+    }
+
+    @Test
+    void behavesLikeHashMap() {
+        final Random random = new Random(1);
+        final String[] collidingKeys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa"};
+        final Map<String, Object> expected = new HashMap<>();
+        PersistentJsonMap persistent = PersistentJsonMap.empty();
+        for (int i = 0; i < 100_000; i++) {
+            final String key = (random.nextInt(10) == 0) ? collidingKeys[random.nextInt(collidingKeys.length)] : "k" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                persistent = persistent.without(key);
+                expected.remove(key);
+            } else {
+                persistent = persistent.with(key, i);
+                expected.put(key, i);
+            }
+        }
+        assertThat(persistent).isEqualTo(expected).hasSize(expected.size());
+        for (String key : expected.keySet()) {
+            persistent = persistent.without(key);
+        }
+        assertThat(persistent).isSameAs(PersistentJsonMap.empty());
+    }
+}
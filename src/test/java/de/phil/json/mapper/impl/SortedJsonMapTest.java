@@ -0,0 +1,89 @@
+package de.phil.json.mapper.impl;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SortedJsonMap}.
+ */
+class SortedJsonMapTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1,\"extras\":{\"x\":1}},"
+            + "{\"name\":\"bmw\",\"id\":2,\"extras\":{\"x\":2}}],\"a\":[1,2]}";
+
+    @Test
+    void isEqualToJsonMapImpl() {
+        final SortedJsonMap sorted = JsonMapping.readJson(JSON, SortedJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        assertThat(sorted).isEqualTo(jsonMap);
+        assertThat(jsonMap).isEqualTo(sorted);
+        assertThat(sorted.hashCode()).isEqualTo(jsonMap.hashCode());
+        assertThat(JsonMapping.writeValueAsString(sorted)).isEqualTo(JsonMapping.writeValueAsString(jsonMap));
+    }
+
+    @Test
+    void readsNestedSortedMaps() {
+        final SortedJsonMap sorted = JsonMapping.readJson(JSON, SortedJsonMap.class);
+        final JsonList cars = sorted.getAsJsonList("cars", SortedJsonMap.class);
+        assertThat(cars.get(0)).isInstanceOf(SortedJsonMap.class);
+        assertThat(cars.get(0).keySet()).containsExactly("extras", "id", "name");
+        assertThat(cars.get(1).getAsMap("extras", SortedJsonMap.class).getInt("x", 0)).isEqualTo(2);
+    }
+
+    @Test
+    void keepsKeysSorted() {
+        final SortedJsonMap sorted = new SortedJsonMap();
+        sorted.put("c", 1);
+        sorted.put("a", 2);
+        sorted.put("b", 3);
+        sorted.remove("c");
+        sorted.put("d", null);
+        assertThat(sorted.keySet()).containsExactly("a", "b", "d");
+        assertThat(sorted.firstKey()).isEqualTo("a");
+        assertThat(sorted.lastKey()).isEqualTo("d");
+        assertThat(sorted.put("b", 4)).isEqualTo(3);
+        assertThat(sorted.get("b")).isEqualTo(4);
+        assertThat(sorted.get(1)).isNull();
+    }
+
+    @Test
+    void viewsChangeMap() {
+        final SortedJsonMap sorted = new SortedJsonMap(Map.of("a", 1, "b", 2, "c", 3, "d", 4));
+        final SortedMap<String, Object> subMap = sorted.subMap("b", "d");
+        assertThat(subMap).isEqualTo(Map.of("b", 2, "c", 3));
+        assertThat(sorted.headMap("c").keySet()).containsExactly("a", "b");
+        assertThat(sorted.tailMap("c").keySet()).containsExactly("c", "d");
+        subMap.put("bb", 5);
+        assertThat(sorted).containsEntry("bb", 5);
+        assertThatThrownBy(() -> subMap.put("e", 1)).isInstanceOf(IllegalArgumentException.class);
+
+        final Iterator<Map.Entry<String, Object>> iterator = sorted.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Object> entry = iterator.next();
+            if (entry.getKey().equals("a")) {
+                iterator.remove();
+            } else {
+                entry.setValue(0);
+            }
+        }
+        assertThat(sorted).isEqualTo(Map.of("b", 0, "bb", 0, "c", 0, "d", 0));
+    }
+
+    @Test
+    void notifiesIndexingLists() {
+        final JsonList cars = JsonMapping.readJson(JSON, SortedJsonMap.class).getAsJsonList("cars", SortedJsonMap.class).indexBy("id");
+        final JsonMap audi = cars.get("id", 1);
+        audi.put("id", 7);
+        assertThat(cars.findAll("id", 7)).containsExactly(audi);
+        assertThat(cars.findAll("id", 1)).isEmpty();
+    }
+}
@@ -0,0 +1,137 @@
+package de.phil.json.mapper.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TrackingJsonMap}.
+ */
+class TrackingJsonMapTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1,\"extras\":[\"x\",{\"k\":1}]},{\"name\":\"bmw\",\"id\":2}],"
+            + "\"config\":{\"b\":{\"z\":1,\"a\":\"q\"},\"a\":true},\"empty\":[]}";
+
+    @Test
+    void writesSameJsonAsJsonMapImpl() {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final String expected = JsonMapping.writeValueAsString(jsonMap);
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo(expected);
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo(expected);
+        assertThat(JsonMapping.writeValueAsYaml(tracking)).isEqualTo(JsonMapping.writeValueAsYaml(jsonMap));
+    }
+
+    @Test
+    void changesInvalidateContainingMaps() {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final TrackingJsonMap config = (TrackingJsonMap) tracking.getAsMap("config", TrackingJsonMap.class);
+        final TrackingJsonMap b = (TrackingJsonMap) config.getAsMap("b", TrackingJsonMap.class);
+        JsonMapping.writeValueAsString(tracking);
+        assertThat(config.isDirty()).isFalse();
+        assertThat(b.isDirty()).isFalse();
+
+        b.put("z", 5);
+        jsonMap.getAsMap("config").getAsMap("b").put("z", 5);
+        assertThat(b.isDirty()).isTrue();
+        assertThat(config.isDirty()).isTrue();
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo(JsonMapping.writeValueAsString(jsonMap));
+    }
+
+    @Test
+    void cachesMapsInLists() {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMap car = tracking.getAsJsonList("cars", TrackingJsonMap.class).get(1);
+        JsonMapping.writeValueAsString(tracking);
+        assertThat(((TrackingJsonMap) car).isDirty()).isFalse();
+
+        car.put("id", 7);
+        jsonMap.getAsJsonList("cars").get(1).put("id", 7);
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo(JsonMapping.writeValueAsString(jsonMap));
+    }
+
+    @Test
+    void clearInvalidatesJson() {
+        final TrackingJsonMap tracking = JsonMapping.readJson("{\"a\":1}", TrackingJsonMap.class);
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo("{\"a\":1}");
+        tracking.clear();
+        assertThat(tracking.isDirty()).isTrue();
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo("{}");
+    }
+
+    @Test
+    void replaceAllInvalidatesContainingMaps() {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        JsonMapping.writeValueAsString(tracking);
+        tracking.getAsMap("config", TrackingJsonMap.class).getAsMap("b", TrackingJsonMap.class).replaceAll((key, value) -> 0);
+        jsonMap.getAsMap("config").getAsMap("b").replaceAll((key, value) -> 0);
+        assertThat(tracking.isDirty()).isTrue();
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo(JsonMapping.writeValueAsString(jsonMap));
+    }
+
+    @Test
+    void otherMappersDoNotUseCachedJson() throws JsonProcessingException {
+        final String json = "{\"a\":{\"b\":\"grüße\"}}";
+        final TrackingJsonMap tracking = JsonMapping.readJson(json, TrackingJsonMap.class);
+        final JsonMapImpl jsonMap = JsonMapping.readJson(json, JsonMapImpl.class);
+        tracking.getAsMap("a", TrackingJsonMap.class).put("c", null);
+        jsonMap.getAsMap("a").put("c", null);
+        final String cached = JsonMapping.writeValueAsString(tracking);
+        assertThat(cached).isEqualTo("{\"a\":{\"b\":\"grüße\"}}");
+
+        final ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.writeValueAsString(tracking)).isEqualTo(mapper.writeValueAsString(jsonMap)).contains("null");
+        final ObjectWriter writer = mapper.writer().with(JsonWriteFeature.ESCAPE_NON_ASCII);
+        assertThat(writer.writeValueAsString(tracking)).isEqualTo(writer.writeValueAsString(jsonMap)).doesNotContain("ü");
+        assertThat(JsonMapping.writeValueAsString(tracking)).isEqualTo(cached);
+    }
+
+    @Test
+    void cloneIsTrackedSeparately() {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        JsonMapping.writeValueAsString(tracking);
+        final TrackingJsonMap clone = tracking.clone();
+        clone.put("new", 1);
+        assertThat(clone.isDirty()).isTrue();
+        assertThat(JsonMapping.writeValueAsString(clone)).contains("\"new\":1");
+        assertThat(JsonMapping.writeValueAsString(tracking)).doesNotContain("new");
+    }
+
+    @Test
+    void replacedMapsNoLongerInvalidateFormerParent() {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        final TrackingJsonMap config = (TrackingJsonMap) tracking.getAsMap("config", TrackingJsonMap.class);
+        final TrackingJsonMap b = (TrackingJsonMap) config.getAsMap("b", TrackingJsonMap.class);
+        JsonMapping.writeValueAsString(tracking);
+        config.put("b", new TrackingJsonMap());
+        JsonMapping.writeValueAsString(tracking);
+        JsonMapping.writeValueAsString(b);
+
+        b.put("z", 5);
+        assertThat(b.isDirty()).isTrue();
+        assertThat(config.isDirty()).isFalse();
+        assertThat(tracking.isDirty()).isFalse();
+    }
+
+    @Test
+    void valuesDoNotKeepClonesAlive() throws InterruptedException {
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        final WeakReference<TrackingJsonMap> clone = new WeakReference<>(tracking.clone());
+        for (int i = 0; (i < 50) && (clone.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(clone.get()).isNull();
+    }
+}
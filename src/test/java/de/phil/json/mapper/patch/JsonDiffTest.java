@@ -0,0 +1,115 @@
+package de.phil.json.mapper.patch;
+
+import de.phil.json.mapper.JsonFingerprint;
+import de.phil.json.mapper.JsonMapping;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import de.phil.json.mapper.impl.PersistentJsonMap;
+import de.phil.json.mapper.impl.TrackingJsonMap;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JsonDiff}.
+ */
+class JsonDiffTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1},{\"name\":\"bmw\",\"id\":2}],"
+            + "\"config\":{\"a\":{\"b\":1},\"c/d\":2},\"tags\":[\"x\",\"y\"]}";
+    private static final String CHANGED_JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1},{\"name\":\"kia\",\"id\":3},{\"name\":\"bmw\",\"id\":2}],"
+            + "\"config\":{\"a\":{\"b\":1.0}},\"tags\":[\"x\"],\"new\":true}";
+
+    @Test
+    void findsAddedRemovedAndChangedPaths() {
+        final JsonMapImpl source = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMapImpl target = JsonMapping.readJson(CHANGED_JSON, JsonMapImpl.class);
+        assertThat(JsonDiff.diff(source, target)).containsExactlyInAnyOrder(
+                new JsonDiff.Difference(JsonDiff.Type.REMOVED, "/config/c~1d", 2, null),
+                new JsonDiff.Difference(JsonDiff.Type.CHANGED, "/config/a/b", 1, 1.0),
+                new JsonDiff.Difference(JsonDiff.Type.ADDED, "/cars/1", null, target.getAsJsonList("cars").get(1)),
+                new JsonDiff.Difference(JsonDiff.Type.REMOVED, "/tags/1", "y", null),
+                new JsonDiff.Difference(JsonDiff.Type.ADDED, "/new", null, true));
+        assertThat(JsonDiff.same(source, target)).isFalse();
+    }
+
+    @Test
+    void ignoresNullValues() {
+        final JsonMapImpl source = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMapImpl target = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        target.put("empty", null);
+        assertThat(JsonDiff.diff(source, target)).isEmpty();
+        assertThat(JsonDiff.same(source, target)).isTrue();
+    }
+
+    @Test
+    void findsSameDifferencesInFrozenAndPersistentMaps() {
+        final List<JsonDiff.Difference> expected = JsonDiff.diff(JsonMapping.readJson(JSON, JsonMapImpl.class),
+                                                                 JsonMapping.readJson(CHANGED_JSON, JsonMapImpl.class));
+        final JsonMapImpl source = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMapImpl target = JsonMapping.readJson(CHANGED_JSON, JsonMapImpl.class);
+        source.freeze(JsonMapImpl.class);
+        target.freeze(JsonMapImpl.class);
+        assertThat(source.isFingerprintCached()).isTrue();
+        assertThat(expected).hasSize(5);
+        assertThat(JsonDiff.diff(source, target)).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(JsonDiff.diff(PersistentJsonMap.of(source), PersistentJsonMap.of(target))).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void fingerprintsOfEqualMapsAreEqual() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final PersistentJsonMap persistent = PersistentJsonMap.of(jsonMap);
+        final TrackingJsonMap tracking = JsonMapping.readJson(JSON, TrackingJsonMap.class);
+        assertThat(persistent.fingerprint()).isEqualTo(jsonMap.fingerprint());
+        assertThat(tracking.fingerprint()).isEqualTo(jsonMap.fingerprint());
+        assertThat(JsonMapping.readJson(CHANGED_JSON, JsonMapImpl.class).fingerprint()).isNotEqualTo(jsonMap.fingerprint());
+    }
+
+    @Test
+    void fingerprintsOfSameNumbersAreEqual() {
+        final Map<String, Object> doubles = Map.of("a", 1.5, "b", 0.1, "c", 2L);
+        final Map<String, Object> decimals = Map.of("a", new BigDecimal("1.50"), "b", new BigDecimal("0.1"), "c", 2);
+        assertThat(JsonDiff.diff(doubles, decimals)).isEmpty();
+        assertThat(JsonFingerprint.of(decimals)).isEqualTo(JsonFingerprint.of(doubles));
+        assertThat(JsonFingerprint.of(1.5f)).isEqualTo(JsonFingerprint.of(1.5));
+        assertThat(JsonFingerprint.of(1.25)).isNotEqualTo(JsonFingerprint.of(1.5));
+    }
+
+    @Test
+    void trackingMapsDropChangedFingerprints() {
+        final TrackingJsonMap tracking = JsonMapping.readJson("{\"a\":{\"b\":{\"c\":1}},\"d\":2}", TrackingJsonMap.class);
+        final long fingerprint = tracking.fingerprint();
+        final TrackingJsonMap b = tracking.getAsMap("a", TrackingJsonMap.class).getAsMap("b", TrackingJsonMap.class);
+        b.put("c", 2);
+        assertThat(tracking.fingerprint()).isNotEqualTo(fingerprint);
+        b.put("c", 1);
+        assertThat(tracking.fingerprint()).isEqualTo(fingerprint);
+        assertThat(JsonDiff.diff(tracking, Map.of("a", Map.of("b", Map.of("c", 3)), "d", 2)))
+                .containsExactly(new JsonDiff.Difference(JsonDiff.Type.CHANGED, "/a/b/c", 1, 3));
+    }
+
+    @Test
+    void trackingMapsNoticeChangesThroughViews() {
+        final String json = "{\"a\":{\"b\":{\"c\":1,\"e\":2}},\"d\":2}";
+        final TrackingJsonMap tracking = JsonMapping.readJson(json, TrackingJsonMap.class);
+        final TrackingJsonMap original = JsonMapping.readJson(json, TrackingJsonMap.class);
+        final TrackingJsonMap b = tracking.getAsMap("a", TrackingJsonMap.class).getAsMap("b", TrackingJsonMap.class);
+        assertThat(tracking.isFingerprintCached()).isTrue();
+        assertThat(JsonDiff.diff(original, tracking)).isEmpty();
+
+        b.entrySet().stream().filter(entry -> entry.getKey().equals("c")).forEach(entry -> entry.setValue(3));
+        assertThat(JsonDiff.diff(original, tracking)).containsExactly(new JsonDiff.Difference(JsonDiff.Type.CHANGED, "/a/b/c", 1, 3));
+
+        b.keySet().remove("e");
+        b.values().removeIf(value -> value.equals(3));
+        assertThat(b).isEmpty();
+        assertThat(JsonDiff.diff(original, tracking)).containsExactlyInAnyOrder(
+                new JsonDiff.Difference(JsonDiff.Type.REMOVED, "/a/b/c", 1, null),
+                new JsonDiff.Difference(JsonDiff.Type.REMOVED, "/a/b/e", 2, null));
+        assertThat(tracking.fingerprint()).isNotEqualTo(original.fingerprint());
+    }
+}
@@ -0,0 +1,53 @@
+package de.phil.json.mapper.patch;
+
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import de.phil.json.mapper.impl.CompactJsonMap;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JsonMergePatch}.
+ */
+class JsonMergePatchTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1},{\"name\":\"bmw\",\"id\":2}],"
+            + "\"config\":{\"a\":{\"b\":1},\"c\":2}}";
+
+    @Test
+    void appliesPatchInPlace() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"}}", JsonMapImpl.class);
+        final JsonMap c = jsonMap.getAsMap("c");
+        jsonMap.applyMergePatch(JsonMapping.readJson("{\"a\":\"z\",\"c\":{\"f\":null},\"h\":{\"i\":null,\"j\":1}}", JsonMergePatch.class));
+        assertThat(JsonMapping.writeValueAsString(jsonMap)).isEqualTo("{\"a\":\"z\",\"c\":{\"d\":\"e\"},\"h\":{\"j\":1}}");
+        assertThat(jsonMap.getAsMap("c")).isSameAs(c);
+        assertThat(jsonMap.getAsMap("h")).doesNotContainKey("i");
+    }
+
+    @Test
+    void keepsOptimization() {
+        final CompactJsonMap compact = JsonMapping.readJson(JSON, CompactJsonMap.class);
+        compact.applyMergePatch(JsonMergePatch.of(Map.of("config", Map.of("x", Map.of("y", 1)))));
+        assertThat(compact.getAsMap("config", CompactJsonMap.class).get("x")).isInstanceOf(CompactJsonMap.class);
+        assertThat(compact.getAsMap("config", CompactJsonMap.class).getAsMap("x", CompactJsonMap.class).isOptimizedFor(CompactJsonMap.class))
+                .isTrue();
+    }
+
+    @Test
+    void diffIsWrittenWithRemovals() {
+        final JsonMapImpl source = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMapImpl target = JsonMapping.readJson("{\"cars\":[{\"name\":\"audi\",\"id\":1}],\"config\":{\"a\":{\"b\":1}},\"new\":true}",
+                                                        JsonMapImpl.class);
+        final JsonMergePatch patch = JsonMergePatch.diff(source, target);
+        final String json = JsonMapping.writeValueAsString(patch);
+        assertThat(json).isEqualTo("{\"cars\":[{\"id\":1,\"name\":\"audi\"}],\"config\":{\"c\":null},\"new\":true}");
+
+        source.applyMergePatch(JsonMapping.readJson(json, JsonMergePatch.class));
+        assertThat(JsonMapping.writeValueAsString(source)).isEqualTo(JsonMapping.writeValueAsString(target));
+        assertThat(JsonMergePatch.diff(source, target).isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,95 @@
+package de.phil.json.mapper.patch;
+
+import de.phil.json.mapper.JsonList;
+import de.phil.json.mapper.JsonMap;
+import de.phil.json.mapper.JsonMapping;
+import de.phil.json.mapper.impl.JsonMapImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JsonPatch}.
+ */
+class JsonPatchTest {
+
+    private static final String JSON = "{\"cars\":[{\"name\":\"audi\",\"id\":1,\"extras\":[\"x\",\"y\"]},{\"name\":\"bmw\",\"id\":2}],"
+            + "\"config\":{\"a\":{\"b\":1},\"c/d\":2},\"empty\":[]}";
+
+    @Test
+    void appliesOperationsInPlace() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMap audi = jsonMap.getAsJsonList("cars").get(0);
+        final JsonPatch patch = JsonMapping.readJson("[{\"op\":\"add\",\"path\":\"/cars/-\",\"value\":{\"name\":\"vw\",\"id\":3}},"
+                                                             + "{\"op\":\"replace\",\"path\":\"/config/a/b\",\"value\":5},"
+                                                             + "{\"op\":\"remove\",\"path\":\"/cars/0/extras/0\"},"
+                                                             + "{\"op\":\"move\",\"from\":\"/config/c~1d\",\"path\":\"/moved\"},"
+                                                             + "{\"op\":\"copy\",\"from\":\"/cars/1\",\"path\":\"/empty/0\"},"
+                                                             + "{\"op\":\"test\",\"path\":\"/cars/0/id\",\"value\":1.0}]", JsonPatch.class);
+        jsonMap.applyPatch(patch);
+
+        assertThat(JsonMapping.writeValueAsString(jsonMap)).isEqualTo(
+                "{\"cars\":[{\"extras\":[\"y\"],\"id\":1,\"name\":\"audi\"},{\"id\":2,\"name\":\"bmw\"},{\"id\":3,\"name\":\"vw\"}],"
+                        + "\"config\":{\"a\":{\"b\":5}},\"empty\":[{\"id\":2,\"name\":\"bmw\"}],\"moved\":2}");
+        assertThat(jsonMap.getAsJsonList("cars").get(0)).isSameAs(audi);
+        assertThat(jsonMap.getAsJsonList("cars").get(2).isOptimizedFor(JsonMapImpl.class)).isTrue();
+        assertThat(jsonMap.get("empty")).isInstanceOf(JsonList.class);
+    }
+
+    @Test
+    void failingPatchChangesNothing() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final String json = JsonMapping.writeValueAsString(jsonMap);
+        final JsonPatch patch = new JsonPatch(List.of(JsonPatch.Operation.remove("/config"),
+                                                      JsonPatch.Operation.add("/cars/0", "not a map"),
+                                                      JsonPatch.Operation.test("/cars/0/id", 2)));
+        assertThatThrownBy(() -> jsonMap.applyPatch(patch)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(JsonMapping.writeValueAsString(jsonMap)).isEqualTo(json);
+        assertThat(jsonMap.get("cars")).isInstanceOf(JsonList.class);
+    }
+
+    @Test
+    void keepsListsOfMapsJsonLists() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        jsonMap.applyPatch(new JsonPatch(List.of(JsonPatch.Operation.add("/cars/0", "not a map"))));
+        assertThat(jsonMap.get("cars")).isInstanceOf(ArrayList.class);
+        jsonMap.applyPatch(new JsonPatch(List.of(JsonPatch.Operation.remove("/cars/0"))));
+        assertThat(jsonMap.get("cars")).isInstanceOf(JsonList.class);
+    }
+
+    @Test
+    void rejectsInvalidPaths() {
+        final JsonMapImpl jsonMap = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        assertThatThrownBy(() -> jsonMap.applyPatch(new JsonPatch(List.of(JsonPatch.Operation.add("/cars/5", 1)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jsonMap.applyPatch(new JsonPatch(List.of(JsonPatch.Operation.add("/cars/01", 1)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jsonMap.applyPatch(new JsonPatch(List.of(JsonPatch.Operation.remove("/missing/a")))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jsonMap.applyPatch(new JsonPatch(List.of(JsonPatch.Operation.move("/config", "/config/a")))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JsonPatch.Operation("delete", "/a", null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void diffCreatesMinimalPatch() {
+        final JsonMapImpl source = JsonMapping.readJson(JSON, JsonMapImpl.class);
+        final JsonMapImpl target = JsonMapping.readJson("{\"cars\":[{\"name\":\"audi\",\"id\":1,\"extras\":[\"x\",\"z\",\"y\"]},"
+                                                                + "{\"name\":\"kia\",\"id\":3},{\"name\":\"bmw\",\"id\":2}],"
+                                                                + "\"config\":{\"a\":{\"b\":1.0}},\"empty\":[]}", JsonMapImpl.class);
+        final JsonPatch patch = JsonPatch.diff(source, target);
+        assertThat(patch.getOperations()).containsExactlyInAnyOrder(
+                JsonPatch.Operation.remove("/config/c~1d"),
+                JsonPatch.Operation.replace("/config/a/b", 1.0),
+                JsonPatch.Operation.add("/cars/0/extras/1", "z"),
+                JsonPatch.Operation.add("/cars/1", target.getAsJsonList("cars").get(1)));
+
+        source.applyPatch(JsonMapping.readJson(JsonMapping.writeValueAsString(patch), JsonPatch.class));
+        assertThat(JsonMapping.writeValueAsString(source)).isEqualTo(JsonMapping.writeValueAsString(target));
+        assertThat(JsonPatch.diff(source, target).isEmpty()).isTrue();
+    }
+}
@@ -9,7 +9,14 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -93,5 +100,75 @@ class TypeConverterTest {
         }
     }
 
+    @Test
+    void throwsExceptionWithoutCauseOnUnknownEnumConstant() {
+        enum ABC {A, B, C}
+
+        assertThatThrownBy(() -> TypeConverter.convert("D", ABC.class))
+                .isInstanceOf(TypeConversionException.class)
+                .hasMessageContaining("value=D cannot be converted to " + ABC.class)
+                .hasNoCause();
+    }
+
+    @Test
+    void canConvertEnumsIgnoringCaseAndByAlias() {
+        enum Status {ACTIVE, INACTIVE}
+
+        try {
+            assertThatThrownBy(() -> TypeConverter.convert("active", Status.class)).isInstanceOf(TypeConversionException.class);
+            TypeConverter.registerEnum(Status.class, true, Map.of("on", Status.ACTIVE, "off", Status.INACTIVE));
+            assertThat(TypeConverter.convert("active", Status.class)).isEqualTo(Status.ACTIVE);
+            assertThat(TypeConverter.convert("INACTIVE", Status.class)).isEqualTo(Status.INACTIVE);
+            assertThat(TypeConverter.convert("On", Status.class)).isEqualTo(Status.ACTIVE);
+            assertThat(TypeConverter.convert("off", Status.class)).isEqualTo(Status.INACTIVE);
+            assertThatThrownBy(() -> TypeConverter.convert("unknown", Status.class)).isInstanceOf(TypeConversionException.class);
+        } finally {
+            TypeConverter.unregister(Status.class);
+        }
+    }
+
+    @Test
+    void registryIsThreadSafe() throws Exception {
+        enum Color {RED, GREEN, BLUE}
+        enum Size {S, M, L}
+
+        final int threads = 16;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        assertThat(TypeConverter.convert("GREEN", Color.class)).isEqualTo(Color.GREEN);
+                        assertThat(TypeConverter.convert("L", Size.class)).isEqualTo(Size.L);
+                        assertThat(TypeConverter.convert(i, Long.class)).isEqualTo((long) i);
+                        if (thread % 4 == 0) {
+                            TypeConverter.register(Date.class, value -> new Date(0));
+                        } else if (thread % 4 == 1) {
+                            TypeConverter.unregister(Date.class);
+                        } else {
+                            try {
+                                assertThat(TypeConverter.convert(i, Date.class)).isEqualTo(new Date(0));
+                            } catch (TypeConversionException e) {
+                                assertThat(e).hasMessageContaining("Converter missing");
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertThat(TypeConverter.getRegistrations()).contains(Color.class, Size.class);
+        } finally {
+            executor.shutdownNow();
+            TypeConverter.unregister(Date.class);
+        }
+    }
 
 }
\ No newline at end of file